@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.ConfigReader;
+import utilities.HelperClass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration lookups done by drivers, pages and helpers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigBenchmarks {
+
+    private final ConfigReader configReader = new ConfigReader("config.properties");
+
+    @Benchmark
+    public String getProperty() {
+        return configReader.getProperty("explicitWaitTimeout");
+    }
+
+    @Benchmark
+    public String getPropertyWithSystemOverride() {
+        return System.getProperty("browser", configReader.getProperty("browser"));
+    }
+
+    @Benchmark
+    public String helperClassGetEnv() {
+        return HelperClass.getEnv();
+    }
+
+    @Benchmark
+    public ConfigReader newConfigReader() {
+        return new ConfigReader("config.properties");
+    }
+}
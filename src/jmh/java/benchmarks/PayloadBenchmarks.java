@@ -0,0 +1,71 @@
+package benchmarks;
+
+import api.ApiUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import steps.DataManagement_steps;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload building paths used by every API scenario
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadBenchmarks {
+
+    private static final String PAYLOADS = "src/test/resources/payloads/";
+
+    private Map<String, String> payloadData;
+    private Map<String, String> updateValues;
+    private DataManagement_steps dataManagement;
+
+    @Setup
+    public void setUp() {
+        // Log to the files only, so console output does not dominate the measurement
+        System.setProperty("AddLogInReport", "false");
+        System.setProperty("AddExtentReporting", "false");
+        LoggerContext logContext = (LoggerContext) LogManager.getContext(false);
+        logContext.getConfiguration().getRootLogger().removeAppender("Console");
+        logContext.updateLoggers();
+        Map env = ApiUtils.convertJSONFileToMap(PAYLOADS + "dataEnvSpecificVariables.json");
+        Map data = ApiUtils.convertJSONFileToMap(PAYLOADS + "datapayload.json");
+        payloadData = new HashMap<>((Map<String, String>) env.get("QA"));
+        payloadData.putAll((Map<String, String>) data.get("AkashCustomerPayload"));
+        updateValues = new HashMap<>();
+        updateValues.put("Vintage", "NA Map updated");
+        updateValues.put("cust_score", "NA Map Updated");
+        dataManagement = new DataManagement_steps();
+    }
+
+    @Benchmark
+    public String buildPayloadUsingJSON() {
+        return ApiUtils.buildPayloadUsingJSON(PAYLOADS + "dataTemplate.json", payloadData);
+    }
+
+    @Benchmark
+    public Map convertJSONFileToMap() {
+        return ApiUtils.convertJSONFileToMap(PAYLOADS + "datapayload.json");
+    }
+
+    @Benchmark
+    public String buildCustomerAPIPayloadWithUpdate() {
+        return dataManagement.buildCustomerAPIPayloadWithUpdate("dataTemplate", "AkashCustomerPayload", "datapayload", updateValues);
+    }
+}
@@ -0,0 +1,182 @@
+package benchmarks;
+
+import com.aventstack.extentreports.ExtentTest;
+import configuration.ScenarioStorage;
+import io.cucumber.core.backend.Status;
+import io.cucumber.core.backend.TestCaseState;
+import io.cucumber.java.Scenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reporting.ExtentManager;
+import reporting.Log;
+
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging and Extent report overhead paid on every step
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportingBenchmarks {
+
+    /**
+     * Each flag combination runs in its own fork, so the flags HelperClass caches on first read are the ones set here.
+     * The scenario node is dropped after every iteration so logged messages do not pile up.
+     * With addLogInReport=true a stub Cucumber scenario is registered for the thread, as the Before hook does,
+     * so Log.info goes on to scenario.log; the stub discards the message instead of publishing it.
+     */
+    @State(Scope.Benchmark)
+    public static class LogFlags {
+        @Param({"true", "false"})
+        public String addExtentReporting;
+
+        @Param({"true", "false"})
+        public String addLogInReport;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            System.setProperty("AddExtentReporting", addExtentReporting);
+            System.setProperty("AddLogInReport", addLogInReport);
+        }
+
+        @Setup(Level.Iteration)
+        public void startStep() throws ReflectiveOperationException {
+            if (addExtentReporting.equals("true")) {
+                ExtentManager.startScenario("benchmark scenario");
+                ExtentManager.startStep("benchmark step");
+            }
+            if (addLogInReport.equals("true")) {
+                ScenarioStorage.putScenario(stubScenario());
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void endStep() {
+            if (addExtentReporting.equals("true")) {
+                ExtentManager.getInstance().removeTest(ExtentManager.getScenarioTest());
+                ExtentManager.endScenario();
+            }
+            ScenarioStorage.removeScenario();
+        }
+    }
+
+    /**
+     * One scenario per benchmark thread, dropped from the report after every iteration so nodes do not pile up.
+     * No reporter is attached, so the measurement covers node creation and locking rather than HTML rendering.
+     */
+    @State(Scope.Thread)
+    public static class ScenarioState {
+        static {
+            System.setProperty("AddExtentReporting", "false");
+        }
+
+        @Setup(Level.Iteration)
+        public void startScenario() {
+            ExtentManager.startScenario("scenario-" + Thread.currentThread().getName());
+        }
+
+        @TearDown(Level.Iteration)
+        public void endScenario() {
+            ExtentManager.getInstance().removeTest(ExtentManager.getScenarioTest());
+            ExtentManager.endScenario();
+        }
+    }
+
+    /**
+     * Cucumber creates scenarios itself, so the stub is built through the package-private constructor
+     */
+    private static Scenario stubScenario() throws ReflectiveOperationException {
+        Constructor<Scenario> constructor = Scenario.class.getDeclaredConstructor(TestCaseState.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(new StubTestCaseState());
+    }
+
+    private static class StubTestCaseState implements TestCaseState {
+        private long logged;
+
+        @Override
+        public Collection<String> getSourceTagNames() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Status getStatus() {
+            return Status.PASSED;
+        }
+
+        @Override
+        public boolean isFailed() {
+            return false;
+        }
+
+        @Override
+        public void attach(byte[] data, String mediaType, String name) {
+        }
+
+        @Override
+        public void attach(String data, String mediaType, String name) {
+        }
+
+        @Override
+        public void log(String text) {
+            logged += text.length();
+        }
+
+        @Override
+        public String getName() {
+            return "benchmark scenario";
+        }
+
+        @Override
+        public String getId() {
+            return "benchmark-scenario";
+        }
+
+        @Override
+        public URI getUri() {
+            return URI.create("classpath:benchmarks/benchmark.feature");
+        }
+
+        @Override
+        public Integer getLine() {
+            return 1;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = 1000)
+    @Measurement(iterations = 50, batchSize = 1000)
+    public void logInfo(LogFlags flags) {
+        Log.info("Typed text 'user' into element: id=user-phone-no");
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = 1000)
+    @Measurement(iterations = 50, batchSize = 1000)
+    public ExtentTest startStepUnderContention(ScenarioState scenario) {
+        ExtentManager.startStep("Given user navigates to the login page");
+        return ExtentManager.getStepNode();
+    }
+}
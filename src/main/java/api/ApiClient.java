@@ -0,0 +1,213 @@
+package api;
+
+import reporting.Log;
+import reporting.StepTimings;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe HTTP client shared by all API steps.
+ * One keep-alive {@link HttpClient} is reused for the whole run so connections are pooled,
+ * and a semaphore caps in-flight requests so bursts cannot exhaust local sockets.
+ */
+public class ApiClient {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static volatile ApiClient instance;
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Duration requestTimeout;
+
+    private ApiClient(int maxConcurrency, Duration connectTimeout, Duration requestTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.requestTimeout = requestTimeout;
+        this.permits = new Semaphore(maxConcurrency);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, Runtime.getRuntime().availableProcessors() * 2), runnable -> {
+            Thread thread = new Thread(runnable, "api-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Gets the shared client, creating it from config.properties on first use
+     *
+     * @return shared ApiClient instance
+     */
+    public static ApiClient getInstance() {
+        if (instance == null) {
+            synchronized (ApiClient.class) {
+                if (instance == null) {
+                    int maxConcurrency = getIntSetting("apiMaxConcurrency", 64);
+                    int connectTimeout = getIntSetting("apiConnectTimeout", 10);
+                    int requestTimeout = getIntSetting("apiRequestTimeout", 30);
+                    instance = new ApiClient(maxConcurrency, Duration.ofSeconds(connectTimeout), Duration.ofSeconds(requestTimeout));
+                    Log.info("Configured ApiClient with maxConcurrency=" + maxConcurrency + ", connectTimeout="
+                            + connectTimeout + "s, requestTimeout=" + requestTimeout + "s");
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a separate client for an open-model load run. Its permit limit lets every request that
+     * arrives at ratePerSecond within one request timeout be in flight at once, so permits never
+     * throttle the arrival rate the way the shared client's apiMaxConcurrency would.
+     * Call {@link #shutdown()} when the run is over.
+     *
+     * @param ratePerSecond arrival rate of the load run
+     * @return new client, independent of the shared instance
+     */
+    public static ApiClient forLoad(int ratePerSecond) {
+        int requestTimeout = getIntSetting("apiRequestTimeout", 30);
+        int maxConcurrency = (int) Math.min(Integer.MAX_VALUE, (long) ratePerSecond * Math.max(1, requestTimeout));
+        return new ApiClient(maxConcurrency, Duration.ofSeconds(getIntSetting("apiConnectTimeout", 10)),
+                Duration.ofSeconds(requestTimeout));
+    }
+
+    /**
+     * Stops the threads of a client created with {@link #forLoad}; the shared instance is never shut down
+     */
+    public void shutdown() {
+        if (this == instance) {
+            throw new IllegalStateException("The shared ApiClient cannot be shut down");
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Reads an integer setting, allowing a system property to override config.properties
+     */
+    private static int getIntSetting(String key, int defaultValue) {
+        String value = System.getProperty(key, configReader.getProperty(key));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid " + key + " value: " + value + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Sends a GET request to the current environment
+     */
+    public HttpResponse<String> get(String path) {
+        return send(ApiRequestSpec.forCurrentEnvironment(), "GET", path, null);
+    }
+
+    /**
+     * Sends a POST request with a JSON body to the current environment
+     */
+    public HttpResponse<String> post(String path, String body) {
+        return send(ApiRequestSpec.forCurrentEnvironment(), "POST", path, body);
+    }
+
+    /**
+     * Sends a request and blocks until the response arrives
+     *
+     * @param spec   base URI and default headers
+     * @param method HTTP method
+     * @param path   path resolved against the spec's base URI
+     * @param body   request body, or null for none
+     * @return response with the body as a string
+     */
+    public HttpResponse<String> send(ApiRequestSpec spec, String method, String path, String body) {
+        return sendBlocking(buildRequest(spec, method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Sends a request and returns as soon as the headers arrive, leaving the body as a stream.
+     * Large responses can then be validated without buffering them as a string.
+     * The concurrency permit is released once the headers are received.
+     *
+     * @return response whose body stream must be closed by the caller
+     */
+    public HttpResponse<InputStream> sendForStream(ApiRequestSpec spec, String method, String path, String body) {
+        return sendBlocking(buildRequest(spec, method, path, body), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private <T> HttpResponse<T> sendBlocking(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free API connection", e);
+        }
+        long start = System.nanoTime();
+        try {
+            return httpClient.send(request, bodyHandler);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to send " + request.method() + " " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending " + request.method() + " " + request.uri(), e);
+        } finally {
+            permits.release();
+            StepTimings.recordHttp(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Sends a request without blocking for the response.
+     * The caller blocks only while all permits are in use, which throttles producers.
+     *
+     * @return future completed with the response, or exceptionally on I/O failure
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(ApiRequestSpec spec, String method, String path, String body) {
+        HttpRequest request = buildRequest(spec, method, path, body);
+        long waitStart = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            // Waiting for a permit is waiting on responses to earlier requests
+            StepTimings.recordHttp(System.nanoTime() - waitStart);
+        }
+        try {
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> permits.release());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private HttpRequest buildRequest(ApiRequestSpec spec, String method, String path, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(spec.resolve(path))
+                .timeout(requestTimeout)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        spec.getHeaders().forEach(builder::header);
+        return builder.build();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
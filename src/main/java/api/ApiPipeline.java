@@ -0,0 +1,167 @@
+package api;
+
+import reporting.Log;
+import reporting.StepTimings;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking pipeline that sends many payloads to one endpoint.
+ * Payloads are pulled from the iterator only when a send slot is free, so generation
+ * is lazy and a slow service applies backpressure to the producer. Optional batching
+ * joins several JSON payloads into one JSON array request for bulk endpoints.
+ */
+public class ApiPipeline {
+
+    private final ApiClient client;
+    private final ApiRequestSpec spec;
+    private final String method;
+    private final String path;
+    private final int maxInFlight;
+    private final int batchSize;
+
+    /**
+     * @param spec        base URI and headers for all requests
+     * @param method      HTTP method, e.g. POST
+     * @param path        endpoint path
+     * @param maxInFlight maximum requests awaiting a response at any time
+     * @param batchSize   payloads per request; 1 sends each payload on its own
+     */
+    public ApiPipeline(ApiClient client, ApiRequestSpec spec, String method, String path, int maxInFlight, int batchSize) {
+        if (maxInFlight < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("maxInFlight and batchSize must be positive");
+        }
+        this.client = client;
+        this.spec = spec;
+        this.method = method;
+        this.path = path;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sends all payloads and waits for every response
+     *
+     * @param payloads lazily generated JSON payloads
+     * @return aggregated responses in request order
+     */
+    public PipelineResult run(Iterator<String> payloads) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<PipelineResult.Outcome>> outcomes = new ArrayList<>();
+        long start = System.nanoTime();
+        int payloadCount = 0;
+
+        while (payloads.hasNext()) {
+            long slotWaitStart = System.nanoTime();
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a free pipeline slot", e);
+            }
+            // Waiting for a slot is waiting on the service's responses
+            StepTimings.recordHttp(System.nanoTime() - slotWaitStart);
+            List<String> batch = nextBatch(payloads);
+            payloadCount += batch.size();
+            String body = batchSize == 1 ? batch.get(0) : "[" + String.join(",", batch) + "]";
+            CompletableFuture<PipelineResult.Outcome> outcome;
+            try {
+                outcome = client.sendAsync(spec, method, path, body)
+                        .handle((response, error) -> new PipelineResult.Outcome(response, error));
+            } catch (RuntimeException e) {
+                outcome = CompletableFuture.completedFuture(new PipelineResult.Outcome(null, e));
+            }
+            outcome.whenComplete((result, error) -> inFlight.release());
+            outcomes.add(outcome);
+        }
+
+        // The caller's thread only waits on the service from here on
+        StepTimings.awaitHttp(CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])));
+        List<PipelineResult.Outcome> results = new ArrayList<>(outcomes.size());
+        outcomes.forEach(outcome -> results.add(outcome.join()));
+        PipelineResult result = new PipelineResult(payloadCount, results, System.nanoTime() - start);
+        Log.info("Pipeline " + method + " " + path + ": " + result.summary());
+        return result;
+    }
+
+    private List<String> nextBatch(Iterator<String> payloads) {
+        List<String> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && payloads.hasNext()) {
+            batch.add(payloads.next());
+        }
+        return batch;
+    }
+
+    /**
+     * Aggregated outcome of an {@link ApiPipeline} run
+     */
+    public static class PipelineResult {
+
+        private final int payloadCount;
+        private final List<Outcome> outcomes;
+        private final long elapsedNanos;
+
+        PipelineResult(int payloadCount, List<Outcome> outcomes, long elapsedNanos) {
+            this.payloadCount = payloadCount;
+            this.outcomes = outcomes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getPayloadCount() {
+            return payloadCount;
+        }
+
+        public int getRequestCount() {
+            return outcomes.size();
+        }
+
+        /**
+         * Responses of successful sends in request order; failed sends are skipped
+         */
+        public List<HttpResponse<String>> getResponses() {
+            List<HttpResponse<String>> responses = new ArrayList<>(outcomes.size());
+            for (Outcome outcome : outcomes) {
+                if (outcome.response != null) {
+                    responses.add(outcome.response);
+                }
+            }
+            return responses;
+        }
+
+        /**
+         * Descriptions of all requests that failed or returned a 4xx/5xx status
+         */
+        public List<String> getFailures() {
+            List<String> failures = new ArrayList<>();
+            for (int i = 0; i < outcomes.size(); i++) {
+                Outcome outcome = outcomes.get(i);
+                if (outcome.error != null) {
+                    failures.add("request " + i + ": " + outcome.error);
+                } else if (outcome.response.statusCode() >= 400) {
+                    failures.add("request " + i + ": HTTP " + outcome.response.statusCode() + " " + outcome.response.body());
+                }
+            }
+            return failures;
+        }
+
+        public String summary() {
+            return payloadCount + " payloads in " + outcomes.size() + " requests, " + getFailures().size()
+                    + " failed, " + (elapsedNanos / 1_000_000) + " ms";
+        }
+
+        static class Outcome {
+            private final HttpResponse<String> response;
+            private final Throwable error;
+
+            Outcome(HttpResponse<String> response, Throwable error) {
+                this.response = response;
+                this.error = error;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package api;
+
+import utilities.HelperClass;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable base URI and default headers for API requests of one environment
+ */
+public class ApiRequestSpec {
+
+    private static final String ENV_VARIABLES_FILE = "src/test/resources/payloads/dataEnvSpecificVariables.json";
+    private static final ConcurrentMap<String, ApiRequestSpec> specCache = new ConcurrentHashMap<>();
+
+    private final URI baseUri;
+    private final Map<String, String> headers;
+
+    private ApiRequestSpec(URI baseUri, Map<String, String> headers) {
+        this.baseUri = baseUri;
+        this.headers = Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Gets the spec for the environment selected by the env property
+     *
+     * @return cached spec for the current environment
+     */
+    public static ApiRequestSpec forCurrentEnvironment() {
+        return forEnvironment(HelperClass.getEnv());
+    }
+
+    /**
+     * Gets the spec for an environment, reading dataEnvSpecificVariables.json only the first time
+     *
+     * @param env environment key in dataEnvSpecificVariables.json
+     * @return cached spec for the environment
+     */
+    public static ApiRequestSpec forEnvironment(String env) {
+        return specCache.computeIfAbsent(env, ApiRequestSpec::loadEnvironment);
+    }
+
+    /**
+     * Creates a spec for an explicit base URI, e.g. a local stub server
+     *
+     * @param baseUri base URI all request paths are resolved against
+     * @return spec with the default JSON headers
+     */
+    public static ApiRequestSpec forBaseUri(String baseUri) {
+        return new ApiRequestSpec(URI.create(baseUri), defaultHeaders());
+    }
+
+    private static ApiRequestSpec loadEnvironment(String env) {
+        Map envData = ApiUtils.convertJSONFileToMap(ENV_VARIABLES_FILE);
+        Map envAttr = envData == null ? null : (Map) envData.get(env);
+        // Check if the base URL is overridden by system property
+        String baseUrl = System.getProperty("apiBaseUrl");
+        if ((baseUrl == null || baseUrl.isEmpty()) && envAttr != null) {
+            baseUrl = (String) envAttr.get("apiBaseUrl");
+        }
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            throw new IllegalStateException("No apiBaseUrl configured for environment: " + env);
+        }
+        return new ApiRequestSpec(URI.create(baseUrl), defaultHeaders());
+    }
+
+    private static Map<String, String> defaultHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("Accept", "application/json");
+        return headers;
+    }
+
+    /**
+     * Creates a copy of this spec with an additional default header
+     */
+    public ApiRequestSpec withHeader(String name, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        copy.put(name, value);
+        return new ApiRequestSpec(baseUri, copy);
+    }
+
+    /**
+     * Resolves a request path against the base URI
+     */
+    public URI resolve(String path) {
+        String base = baseUri.toString();
+        if (base.endsWith("/") && path.startsWith("/")) {
+            return URI.create(base + path.substring(1));
+        }
+        if (!base.endsWith("/") && !path.startsWith("/")) {
+            return URI.create(base + "/" + path);
+        }
+        return URI.create(base + path);
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
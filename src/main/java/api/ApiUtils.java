@@ -3,14 +3,9 @@ package api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.io.StringWriter;
 import java.nio.file.Paths;
 import java.util.Map;
 
-import org.apache.velocity.Template;
-import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
-
 
 public class ApiUtils {
 
@@ -28,16 +23,10 @@ public class ApiUtils {
 
     }
 
+    /**
+     * Builds a payload from a template file; the template is loaded once and compiled unless it needs Velocity
+     */
     public static String buildPayloadUsingJSON(String payloadpath, Map testDataJson) {
-        VelocityEngine velocityEngine = new VelocityEngine();
-        velocityEngine.init();
-        Template template = velocityEngine.getTemplate(payloadpath);
-        VelocityContext velocitycontext = new VelocityContext(testDataJson);
-
-        StringWriter stringWriter = new StringWriter();
-        template.merge(velocitycontext, stringWriter);
-        String jsonpayload = stringWriter.toString();
-        return jsonpayload;
-
+        return JsonTemplate.forFile(payloadpath).render(testDataJson);
     }
 }
\ No newline at end of file
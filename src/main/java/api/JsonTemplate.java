@@ -0,0 +1,295 @@
+package api;
+
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.app.event.EventCartridge;
+import org.apache.velocity.app.event.ReferenceInsertionEventHandler;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Payload template loaded once per file and rendered from a data map.
+ * Templates that only use plain references ($name, ${name}, $!name) are compiled into a list of
+ * literal text and slots, and rendering is a single pass appending into one buffer. Values placed
+ * inside JSON strings are escaped, so quotes or backslashes in test data cannot break the payload.
+ * Templates with directives, escapes or property access are merged by a shared VelocityEngine; those
+ * values are escaped too when their reference sits inside a JSON string. A reference written both
+ * inside and outside strings of such a template is escaped everywhere.
+ */
+public class JsonTemplate {
+
+    private static final Map<String, JsonTemplate> templates = new ConcurrentHashMap<>();
+    private static volatile VelocityEngine velocityEngine;
+    // A Velocity reference with optional property and method access, e.g. $!{name} or $customer.getName()
+    private static final Pattern VELOCITY_REFERENCE = Pattern.compile(
+            "\\$!?(\\{[A-Za-z_][\\w-]*}|[A-Za-z_][\\w-]*(\\.[A-Za-z_]\\w*(\\([^)]*\\))?)*)");
+
+    private final String[] literals;
+    private final Slot[] slots;
+    private final int sizeHint;
+    private final Template velocityTemplate;
+    private final Set<String> stringReferences;
+
+    private JsonTemplate(List<String> literals, List<Slot> slots, int sizeHint) {
+        this.literals = literals.toArray(new String[0]);
+        this.slots = slots.toArray(new Slot[0]);
+        this.sizeHint = sizeHint;
+        this.velocityTemplate = null;
+        this.stringReferences = null;
+    }
+
+    private JsonTemplate(Template velocityTemplate, Set<String> stringReferences) {
+        this.literals = null;
+        this.slots = null;
+        this.sizeHint = 0;
+        this.velocityTemplate = velocityTemplate;
+        this.stringReferences = stringReferences;
+    }
+
+    /**
+     * Gets the template for a file, loading and compiling it on first use
+     *
+     * @param templatePath path of the template relative to the working directory
+     */
+    public static JsonTemplate forFile(String templatePath) {
+        return templates.computeIfAbsent(templatePath, JsonTemplate::load);
+    }
+
+    private static JsonTemplate load(String templatePath) {
+        String text;
+        try {
+            text = new String(Files.readAllBytes(Paths.get(templatePath)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read payload template " + templatePath, e);
+        }
+        JsonTemplate compiled = compile(text);
+        return compiled != null ? compiled
+                : new JsonTemplate(getVelocityEngine().getTemplate(templatePath), stringReferences(text));
+    }
+
+    /**
+     * Finds the references a Velocity template places inside JSON strings
+     *
+     * @return each reference as written, e.g. "$name" or "${name}"
+     */
+    static Set<String> stringReferences(String text) {
+        Set<String> references = new HashSet<>();
+        Matcher reference = VELOCITY_REFERENCE.matcher(text);
+        boolean inString = false;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\' && inString) {
+                i += 2;
+                continue;
+            }
+            if (c == '"') {
+                inString = !inString;
+            } else if (c == '$' && reference.region(i, text.length()).lookingAt()) {
+                if (inString) {
+                    references.add(reference.group());
+                }
+                i = reference.end();
+                continue;
+            }
+            i++;
+        }
+        return references;
+    }
+
+    /**
+     * Compiles template text into literals and slots
+     *
+     * @return compiled template, or null when the text needs Velocity
+     */
+    static JsonTemplate compile(String text) {
+        // Directives, comments and escaped references are left to Velocity
+        if (text.indexOf('#') >= 0 || text.contains("\\$")) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean inString = false;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\' && inString && i + 1 < text.length()) {
+                literal.append(c).append(text.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '"') {
+                inString = !inString;
+            }
+            if (c == '$') {
+                int end = parseReference(text, i);
+                if (end < 0) {
+                    return null;
+                }
+                if (end > i) {
+                    String reference = text.substring(i, end);
+                    boolean quiet = reference.startsWith("$!");
+                    String name = reference.substring(quiet ? 2 : 1);
+                    if (name.startsWith("{")) {
+                        name = name.substring(1, name.length() - 1);
+                    }
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    slots.add(new Slot(name, reference, quiet, inString));
+                    i = end;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(literal.toString());
+        return new JsonTemplate(literals, slots, text.length() + slots.size() * 16);
+    }
+
+    /**
+     * Finds the end of a Velocity reference starting at a '$'
+     *
+     * @return index after the reference, the start index when the '$' is plain text,
+     * or -1 when the reference uses syntax the fast path does not support
+     */
+    private static int parseReference(String text, int start) {
+        int i = start + 1;
+        if (i < text.length() && text.charAt(i) == '!') {
+            i++;
+        }
+        boolean formal = i < text.length() && text.charAt(i) == '{';
+        if (formal) {
+            i++;
+        }
+        if (i >= text.length() || !isIdentifierStart(text.charAt(i))) {
+            return formal ? -1 : start;
+        }
+        while (i < text.length() && isIdentifierPart(text.charAt(i))) {
+            i++;
+        }
+        if (formal) {
+            return i < text.length() && text.charAt(i) == '}' ? i + 1 : -1;
+        }
+        // Property and method access such as $customer.name
+        if (i + 1 < text.length() && (text.charAt(i) == '.' && isIdentifierStart(text.charAt(i + 1)) || text.charAt(i) == '[')) {
+            return -1;
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Renders the template with values from the data map.
+     * A reference without a value is written as-is, or left empty for $!name, matching Velocity.
+     */
+    @SuppressWarnings("unchecked")
+    public String render(Map<String, ?> data) {
+        if (velocityTemplate != null) {
+            VelocityContext context = new VelocityContext((Map<String, Object>) data);
+            if (!stringReferences.isEmpty()) {
+                EventCartridge cartridge = new EventCartridge();
+                cartridge.addEventHandler((ReferenceInsertionEventHandler) (eventContext, reference, value) ->
+                        value != null && stringReferences.contains(reference) ? escape(value.toString()) : value);
+                cartridge.attachToContext(context);
+            }
+            StringWriter writer = new StringWriter();
+            velocityTemplate.merge(context, writer);
+            return writer.toString();
+        }
+        StringBuilder out = new StringBuilder(sizeHint);
+        for (int s = 0; s < slots.length; s++) {
+            out.append(literals[s]);
+            Slot slot = slots[s];
+            Object value = data.get(slot.name);
+            if (value == null) {
+                if (!slot.quiet) {
+                    out.append(slot.reference);
+                }
+            } else if (slot.inString) {
+                appendEscaped(out, value.toString());
+            } else {
+                out.append(value);
+            }
+        }
+        return out.append(literals[slots.length]).toString();
+    }
+
+    public boolean isCompiled() {
+        return velocityTemplate == null;
+    }
+
+    private static String escape(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 8);
+        appendEscaped(out, value);
+        return out.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+
+    private static VelocityEngine getVelocityEngine() {
+        if (velocityEngine == null) {
+            synchronized (JsonTemplate.class) {
+                if (velocityEngine == null) {
+                    VelocityEngine engine = new VelocityEngine();
+                    engine.init();
+                    velocityEngine = engine;
+                }
+            }
+        }
+        return velocityEngine;
+    }
+
+    private static class Slot {
+        private final String name;
+        private final String reference;
+        private final boolean quiet;
+        private final boolean inString;
+
+        private Slot(String name, String reference, boolean quiet, boolean inString) {
+            this.name = name;
+            this.reference = reference;
+            this.quiet = quiet;
+            this.inString = inString;
+        }
+    }
+}
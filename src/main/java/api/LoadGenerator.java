@@ -0,0 +1,112 @@
+package api;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reporting.Log;
+import reporting.StepTimings;
+import utilities.VirtualThreads;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator that replays one request at a constant arrival rate.
+ * Each request is started on its own virtual thread at its scheduled time, so a slow
+ * service never delays later arrivals. Response time is measured from the scheduled
+ * start rather than the actual send, which corrects for coordinated omission.
+ * Requests should go through a client that does not cap concurrency below the offered load,
+ * such as {@link ApiClient#forLoad(int)}; otherwise the run degrades into a closed model.
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final String name;
+    private final int ratePerSecond;
+    private final Duration duration;
+
+    public LoadGenerator(String name, int ratePerSecond, Duration duration) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+    }
+
+    /**
+     * Fires the request at the configured rate and waits for all responses
+     *
+     * @param request sends one request; called concurrently from many threads
+     * @return latency and error summary of the run
+     */
+    public LoadReport run(Supplier<HttpResponse<?>> request) {
+        Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        LongAdder errors = new LongAdder();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long totalRequests = duration.toSeconds() * ratePerSecond;
+
+        Log.info("Starting load '" + name + "': " + ratePerSecond + " req/s for " + duration.toSeconds() + "s"
+                + (VirtualThreads.isSupported() ? " on virtual threads" : " on platform threads"));
+        long start = System.nanoTime();
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("load-" + name);
+        try {
+            for (long i = 0; i < totalRequests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long delay;
+                // parkNanos may return early, so park again until the scheduled time
+                while ((delay = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(delay);
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IllegalStateException("Interrupted while running load '" + name + "'");
+                    }
+                }
+                executor.execute(() -> {
+                    long sendTime = System.nanoTime();
+                    try {
+                        HttpResponse<?> response = request.get();
+                        if (response.statusCode() >= 400) {
+                            errors.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                    } finally {
+                        long end = System.nanoTime();
+                        responseTime.recordValue(Math.min(end - intendedStart, HIGHEST_TRACKABLE_NANOS));
+                        serviceTime.recordValue(Math.min(end - sendTime, HIGHEST_TRACKABLE_NANOS));
+                    }
+                });
+            }
+        } finally {
+            awaitCompletion(executor);
+        }
+        long elapsed = System.nanoTime() - start;
+        // The whole run is spent driving the service under test
+        StepTimings.recordHttp(elapsed);
+
+        LoadReport report = new LoadReport(name, ratePerSecond, totalRequests, errors.sum(), elapsed, responseTime, serviceTime);
+        report.write();
+        return report;
+    }
+
+    /**
+     * Shuts the executor down and waits for in-flight requests
+     */
+    private static void awaitCompletion(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
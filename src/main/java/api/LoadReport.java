@@ -0,0 +1,103 @@
+package api;
+
+import org.HdrHistogram.Histogram;
+import reporting.Log;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link LoadGenerator} run, written to target/load as a summary and HDR percentile files
+ */
+public class LoadReport {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+    private final int targetRate;
+    private final long requests;
+    private final long errors;
+    private final long elapsedNanos;
+    private final Histogram responseTime;
+    private final Histogram serviceTime;
+
+    LoadReport(String name, int targetRate, long requests, long errors, long elapsedNanos,
+               Histogram responseTime, Histogram serviceTime) {
+        this.name = name;
+        this.targetRate = targetRate;
+        this.requests = requests;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.responseTime = responseTime;
+        this.serviceTime = serviceTime;
+    }
+
+    /**
+     * Response time percentile in milliseconds, measured from the scheduled start
+     */
+    public double getResponseTimePercentileMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Service time percentile in milliseconds, measured from the actual send
+     */
+    public double getServiceTimePercentileMillis(double percentile) {
+        return serviceTime.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    public double getAchievedRate() {
+        return requests / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Human-readable summary of the run
+     */
+    public String summary() {
+        return String.format("Load '%s': target=%d req/s, achieved=%.1f req/s, requests=%d, errors=%d%n"
+                        + "response time (ms): p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n"
+                        + "service time  (ms): p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                name, targetRate, getAchievedRate(), requests, errors,
+                getResponseTimePercentileMillis(50), getResponseTimePercentileMillis(90),
+                getResponseTimePercentileMillis(99), getResponseTimePercentileMillis(99.9),
+                responseTime.getMaxValue() / NANOS_PER_MILLI,
+                getServiceTimePercentileMillis(50), getServiceTimePercentileMillis(90),
+                getServiceTimePercentileMillis(99), getServiceTimePercentileMillis(99.9),
+                serviceTime.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Writes the summary and both percentile distributions under target/load
+     */
+    void write() {
+        Log.info(summary());
+        try {
+            Path dir = Files.createDirectories(Paths.get("target", "load"));
+            String fileName = name.replaceAll("[^A-Za-z0-9_.-]", "_");
+            Files.writeString(dir.resolve(fileName + "-summary.txt"), summary(), StandardCharsets.UTF_8);
+            writeDistribution(responseTime, dir.resolve(fileName + "-response-time.hgrm"));
+            writeDistribution(serviceTime, dir.resolve(fileName + "-service-time.hgrm"));
+        } catch (IOException e) {
+            Log.info("Failed to write load report for " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeDistribution(Histogram histogram, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assertion engine for API responses.
+ * The response is read with a streaming parser: the list array, at the top level or at the field
+ * given by {@link #withArrayAt(String)} inside an envelope object, is visited one element at a time,
+ * so only a single element is ever held as a tree while JsonPath expectations run against it.
+ * Any other response with JsonPath expectations is read into a tree as a whole.
+ * JsonPath expressions are compiled once per JVM and every mismatch is collected before failing.
+ */
+public class ResponseValidator {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonFactory jsonFactory = mapper.getFactory();
+    private static final ConcurrentMap<String, JsonPath> compiledPaths = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, JsonNode> schemaCache = new ConcurrentHashMap<>();
+    private static final Configuration jsonPathConfig = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(mapper))
+            .mappingProvider(new JacksonMappingProvider(mapper))
+            .options(Option.SUPPRESS_EXCEPTIONS)
+            .build();
+    private static final int DEFAULT_MAX_MISMATCHES = 200;
+
+    private final Map<JsonPath, String> expectations = new LinkedHashMap<>();
+    private JsonNode schema;
+    private Integer expectedCount;
+    private JsonPointer arrayPointer = JsonPointer.empty();
+    private int maxMismatches = DEFAULT_MAX_MISMATCHES;
+
+    /**
+     * Expects the value at a JsonPath to equal the given text.
+     * For a list response the path is evaluated against every element of the list array.
+     */
+    public ResponseValidator expect(String jsonPath, String expected) {
+        expectations.put(compile(jsonPath), expected);
+        return this;
+    }
+
+    /**
+     * Expects the list array to have exactly the given number of elements
+     */
+    public ResponseValidator expectCount(int count) {
+        this.expectedCount = count;
+        return this;
+    }
+
+    /**
+     * Reads the list array from a field of an envelope object instead of the top level,
+     * e.g. "/data" for {"data":[...],"page":1}. Fields outside the array are checked against the
+     * schema only; expectations and the expected count apply to the array's elements.
+     *
+     * @param pointer JSON Pointer made of object field names, "" for a top-level array
+     */
+    public ResponseValidator withArrayAt(String pointer) {
+        this.arrayPointer = JsonPointer.compile(pointer);
+        return this;
+    }
+
+    /**
+     * Validates the response against a JSON Schema file, read once per JVM
+     */
+    public ResponseValidator withSchema(String schemaPath) {
+        this.schema = schemaCache.computeIfAbsent(schemaPath, path -> {
+            try {
+                return mapper.readTree(Paths.get(path).toFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read JSON schema " + path, e);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Limits how many mismatches are kept; further mismatches are only counted
+     */
+    public ResponseValidator withMaxMismatches(int maxMismatches) {
+        this.maxMismatches = maxMismatches;
+        return this;
+    }
+
+    /**
+     * Gets the compiled form of a JsonPath expression, compiling it on first use
+     */
+    public static JsonPath compile(String jsonPath) {
+        return compiledPaths.computeIfAbsent(jsonPath, JsonPath::compile);
+    }
+
+    public List<String> validate(String body) {
+        return validate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Streams the response once and collects every mismatch
+     *
+     * @param body response body; closed when validation ends
+     * @return mismatch descriptions, empty when the response is valid
+     */
+    public List<String> validate(InputStream body) {
+        MismatchCollector mismatches = new MismatchCollector(maxMismatches);
+        StreamingSchemaValidator schemaValidator = new StreamingSchemaValidator(mismatches);
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                mismatches.add("$: response body is empty");
+                return mismatches.toList();
+            }
+            if (!arrayPointer.matches()) {
+                validateEnvelope(parser, arrayPointer, schema, "$", schemaValidator, mismatches);
+            } else if (token == JsonToken.START_ARRAY) {
+                validateArray(parser, schema, "$", schemaValidator, mismatches);
+            } else {
+                if (expectedCount != null) {
+                    mismatches.add("$: expected an array of " + expectedCount + " elements but found " + token);
+                }
+                validateElement(parser, "$", schema, schemaValidator, mismatches);
+            }
+        } catch (IOException e) {
+            mismatches.add("$: response is not valid JSON: " + e.getMessage());
+        }
+        return mismatches.toList();
+    }
+
+    /**
+     * Walks the envelope objects down to the list array, validating every other field against the schema
+     */
+    private void validateEnvelope(JsonParser parser, JsonPointer pointer, JsonNode envelopeSchema, String location,
+                                  StreamingSchemaValidator schemaValidator, MismatchCollector mismatches) throws IOException {
+        if (pointer.matches()) {
+            if (parser.currentToken() == JsonToken.START_ARRAY) {
+                validateArray(parser, envelopeSchema, location, schemaValidator, mismatches);
+            } else {
+                mismatches.add(location + ": expected the list array but found " + parser.currentToken());
+                parser.skipChildren();
+            }
+            return;
+        }
+        String field = pointer.getMatchingProperty();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            mismatches.add(location + ": expected an object with field '" + field + "' but found " + parser.currentToken());
+            parser.skipChildren();
+            return;
+        }
+        if (envelopeSchema != null) {
+            schemaValidator.checkType(parser, JsonToken.START_OBJECT, envelopeSchema.get("type"), location);
+        }
+        boolean found = schemaValidator.validateObject(parser, envelopeSchema, location, field,
+                (fieldParser, fieldSchema, fieldLocation) -> validateEnvelope(fieldParser, pointer.tail(), fieldSchema,
+                        fieldLocation, schemaValidator, mismatches));
+        if (!found) {
+            mismatches.add(location + "." + field + ": list field is missing");
+        }
+    }
+
+    private void validateArray(JsonParser parser, JsonNode arraySchema, String location,
+                               StreamingSchemaValidator schemaValidator, MismatchCollector mismatches) throws IOException {
+        JsonNode itemSchema = null;
+        if (arraySchema != null) {
+            schemaValidator.checkType(parser, JsonToken.START_ARRAY, arraySchema.get("type"), location);
+            itemSchema = arraySchema.get("items");
+        }
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            validateElement(parser, location + "[" + count + "]", itemSchema, schemaValidator, mismatches);
+            count++;
+        }
+        if (arraySchema != null) {
+            schemaValidator.checkSize(count, arraySchema, location);
+        }
+        if (expectedCount != null && expectedCount != count) {
+            mismatches.add(location + ": expected " + expectedCount + " elements but found " + count);
+        }
+    }
+
+    /**
+     * Validates one value; it is materialized as a tree only when JsonPath expectations need it
+     */
+    private void validateElement(JsonParser parser, String location, JsonNode elementSchema,
+                                 StreamingSchemaValidator schemaValidator, MismatchCollector mismatches) throws IOException {
+        if (expectations.isEmpty()) {
+            schemaValidator.validate(parser, elementSchema, location);
+            return;
+        }
+        JsonNode element = mapper.readTree(parser);
+        if (elementSchema != null) {
+            try (JsonParser elementParser = element.traverse(mapper)) {
+                elementParser.nextToken();
+                schemaValidator.validate(elementParser, elementSchema, location);
+            }
+        }
+        for (Map.Entry<JsonPath, String> expectation : expectations.entrySet()) {
+            JsonNode actual = expectation.getKey().read(element, jsonPathConfig);
+            String actualText = actual == null || actual.isMissingNode() ? null
+                    : actual.isValueNode() ? actual.asText() : actual.toString();
+            if (!expectation.getValue().equals(actualText)) {
+                mismatches.add(location + " " + expectation.getKey().getPath() + ": expected '"
+                        + expectation.getValue() + "' but was '" + actualText + "'");
+            }
+        }
+    }
+
+    /**
+     * Validates the response and fails with every mismatch in one assertion error
+     */
+    public void assertValid(InputStream body) {
+        failOnMismatches(validate(body));
+    }
+
+    public void assertValid(String body) {
+        failOnMismatches(validate(body));
+    }
+
+    private static void failOnMismatches(List<String> mismatches) {
+        if (!mismatches.isEmpty()) {
+            throw new AssertionError("Response validation failed with " + mismatches.size() + " mismatch(es):\n"
+                    + String.join("\n", mismatches));
+        }
+    }
+
+    /**
+     * Keeps the first mismatches and counts the rest so huge invalid responses stay cheap to report
+     */
+    static class MismatchCollector {
+        private final int limit;
+        private final List<String> mismatches = new ArrayList<>();
+        private int dropped;
+
+        MismatchCollector(int limit) {
+            this.limit = limit;
+        }
+
+        void add(String mismatch) {
+            if (mismatches.size() < limit) {
+                mismatches.add(mismatch);
+            } else {
+                dropped++;
+            }
+        }
+
+        List<String> toList() {
+            List<String> result = new ArrayList<>(mismatches);
+            if (dropped > 0) {
+                result.add("... and " + dropped + " more mismatch(es)");
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Validates a JSON token stream against a JSON Schema without building a tree of the document.
+ * Supports the keywords used by our response schemas: type, properties, required,
+ * additionalProperties (boolean), items, enum, minimum, maximum, minItems and maxItems.
+ */
+class StreamingSchemaValidator {
+
+    private final ResponseValidator.MismatchCollector errors;
+
+    StreamingSchemaValidator(ResponseValidator.MismatchCollector errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Validates the value starting at the parser's current token and leaves the parser on its last token
+     */
+    void validate(JsonParser parser, JsonNode schema, String path) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (schema == null || schema.isEmpty()) {
+            parser.skipChildren();
+            return;
+        }
+        checkType(parser, token, schema.get("type"), path);
+
+        switch (token) {
+            case START_OBJECT:
+                validateObject(parser, schema, path);
+                break;
+            case START_ARRAY:
+                validateArray(parser, schema, path);
+                break;
+            default:
+                validateScalar(parser, token, schema, path);
+        }
+    }
+
+    private void validateObject(JsonParser parser, JsonNode schema, String path) throws IOException {
+        validateObject(parser, schema, path, null, null);
+    }
+
+    /**
+     * Validates the object starting at the parser's current token, handing one field's value to a handler
+     * instead of validating it. The schema may be null, in which case only the handled field is looked at.
+     *
+     * @param field  name of the field to hand over, or null to validate every field
+     * @param target receives the parser positioned on the field's value, with the field's schema
+     * @return true when the object has the field
+     */
+    boolean validateObject(JsonParser parser, JsonNode schema, String path, String field, ValueHandler target) throws IOException {
+        JsonNode properties = schema == null ? null : schema.get("properties");
+        boolean additionalAllowed = schema == null || !schema.has("additionalProperties")
+                || schema.get("additionalProperties").asBoolean(true);
+        Set<String> seen = new HashSet<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            seen.add(name);
+            parser.nextToken();
+            JsonNode propertySchema = properties == null ? null : properties.get(name);
+            if (propertySchema == null && !additionalAllowed) {
+                errors.add(path + "." + name + ": property is not allowed by the schema");
+            }
+            if (name.equals(field)) {
+                target.handle(parser, propertySchema, path + "." + name);
+            } else {
+                validate(parser, propertySchema, path + "." + name);
+            }
+        }
+        JsonNode required = schema == null ? null : schema.get("required");
+        if (required != null) {
+            for (JsonNode name : required) {
+                if (!seen.contains(name.asText())) {
+                    errors.add(path + "." + name.asText() + ": required property is missing");
+                }
+            }
+        }
+        return field != null && seen.contains(field);
+    }
+
+    private void validateArray(JsonParser parser, JsonNode schema, String path) throws IOException {
+        JsonNode items = schema.get("items");
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            validate(parser, items, path + "[" + count + "]");
+            count++;
+        }
+        checkSize(count, schema, path);
+    }
+
+    /**
+     * Checks minItems and maxItems for an array of the given size
+     */
+    void checkSize(int count, JsonNode schema, String path) {
+        if (schema.has("minItems") && count < schema.get("minItems").asInt()) {
+            errors.add(path + ": expected at least " + schema.get("minItems").asInt() + " items but found " + count);
+        }
+        if (schema.has("maxItems") && count > schema.get("maxItems").asInt()) {
+            errors.add(path + ": expected at most " + schema.get("maxItems").asInt() + " items but found " + count);
+        }
+    }
+
+    private void validateScalar(JsonParser parser, JsonToken token, JsonNode schema, String path) throws IOException {
+        JsonNode allowed = schema.get("enum");
+        if (allowed != null) {
+            String actual = token == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+            boolean match = false;
+            for (JsonNode candidate : allowed) {
+                if (candidate.isNull() ? actual == null : candidate.asText().equals(actual)) {
+                    match = true;
+                    break;
+                }
+            }
+            if (!match) {
+                errors.add(path + ": value '" + actual + "' is not one of " + allowed);
+            }
+        }
+        if (token.isNumeric()) {
+            double value = parser.getDoubleValue();
+            if (schema.has("minimum") && value < schema.get("minimum").asDouble()) {
+                errors.add(path + ": " + value + " is below minimum " + schema.get("minimum").asText());
+            }
+            if (schema.has("maximum") && value > schema.get("maximum").asDouble()) {
+                errors.add(path + ": " + value + " is above maximum " + schema.get("maximum").asText());
+            }
+        }
+    }
+
+    /**
+     * Checks the current token against the schema's type keyword, which may be a name or a list of names
+     */
+    void checkType(JsonParser parser, JsonToken token, JsonNode type, String path) throws IOException {
+        if (type == null) {
+            return;
+        }
+        if (type.isArray()) {
+            Iterator<JsonNode> names = type.elements();
+            while (names.hasNext()) {
+                if (matchesType(parser, token, names.next().asText())) {
+                    return;
+                }
+            }
+        } else if (matchesType(parser, token, type.asText())) {
+            return;
+        }
+        errors.add(path + ": expected type " + type + " but found " + describe(token));
+    }
+
+    private static boolean matchesType(JsonParser parser, JsonToken token, String type) throws IOException {
+        switch (type) {
+            case "object":
+                return token == JsonToken.START_OBJECT;
+            case "array":
+                return token == JsonToken.START_ARRAY;
+            case "string":
+                return token == JsonToken.VALUE_STRING;
+            case "number":
+                return token.isNumeric();
+            case "integer":
+                return token == JsonToken.VALUE_NUMBER_INT
+                        || (token == JsonToken.VALUE_NUMBER_FLOAT && parser.getDoubleValue() % 1 == 0);
+            case "boolean":
+                return token.isBoolean();
+            case "null":
+                return token == JsonToken.VALUE_NULL;
+            default:
+                return true;
+        }
+    }
+
+    private static String describe(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+                return "object";
+            case START_ARRAY:
+                return "array";
+            case VALUE_STRING:
+                return "string";
+            case VALUE_NULL:
+                return "null";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "boolean";
+            default:
+                return token.isNumeric() ? "number" : token.name();
+        }
+    }
+
+    /**
+     * Takes over a value the schema validator would otherwise validate itself
+     */
+    interface ValueHandler {
+        /**
+         * Consumes the value starting at the parser's current token and leaves the parser on its last token
+         */
+        void handle(JsonParser parser, JsonNode schema, String path) throws IOException;
+    }
+}
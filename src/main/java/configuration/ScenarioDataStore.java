@@ -0,0 +1,212 @@
+package configuration;
+
+import reporting.Log;
+import utilities.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Key/value store for data produced and consumed by the steps of one scenario.
+ * Each key holds a list of values; the store is reset by the After hook so nothing leaks into
+ * the next scenario run by the same thread. The number of values is capped by scenarioDataMaxValues.
+ * A store is confined to its thread unless {@link #share()} is called, after which worker threads
+ * started by a step can {@link #bind(ScenarioDataStore)} to it.
+ */
+public class ScenarioDataStore {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final int maxValues = getMaxValues();
+    private static final ThreadLocal<ScenarioDataStore> currentStore = ThreadLocal.withInitial(() -> new ScenarioDataStore(false));
+
+    private final Map<String, List<Object>> values;
+    private final boolean shared;
+    private final AtomicInteger valueCount = new AtomicInteger();
+
+    private ScenarioDataStore(boolean shared) {
+        this.shared = shared;
+        this.values = shared ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    private static int getMaxValues() {
+        String value = System.getProperty("scenarioDataMaxValues", configReader.getProperty("scenarioDataMaxValues"));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid scenarioDataMaxValues value: " + value + ". Using default: 10000");
+            return 10000;
+        }
+    }
+
+    /**
+     * Gets the store of the scenario running on the current thread
+     */
+    public static ScenarioDataStore current() {
+        return currentStore.get();
+    }
+
+    /**
+     * Switches the current scenario's store to thread-safe mode so parallel workers of a step can use it.
+     * Values stored so far are kept.
+     *
+     * @return shared store to pass to {@link #bind(ScenarioDataStore)} on the worker threads
+     */
+    public static ScenarioDataStore share() {
+        ScenarioDataStore store = currentStore.get();
+        if (store.shared) {
+            return store;
+        }
+        ScenarioDataStore sharedStore = new ScenarioDataStore(true);
+        store.values.forEach((key, list) -> {
+            sharedStore.values.put(key, Collections.synchronizedList(new ArrayList<>(list)));
+            sharedStore.valueCount.addAndGet(list.size());
+        });
+        currentStore.set(sharedStore);
+        return sharedStore;
+    }
+
+    /**
+     * Makes a shared store the current store of a worker thread; call {@link #unbind()} when the work is done
+     */
+    public static void bind(ScenarioDataStore store) {
+        if (!store.shared) {
+            throw new IllegalArgumentException("Only a store returned by ScenarioDataStore.share() can be bound to another thread");
+        }
+        currentStore.set(store);
+    }
+
+    /**
+     * Detaches a worker thread from the store it was bound to
+     */
+    public static void unbind() {
+        currentStore.remove();
+    }
+
+    /**
+     * Discards the current thread's store; called when a scenario ends
+     */
+    public static void reset() {
+        currentStore.remove();
+    }
+
+    /**
+     * Appends a value to the values held under a key
+     */
+    public void add(String key, Object value) {
+        reserve(1, key);
+        values.computeIfAbsent(key, k -> newList()).add(value);
+    }
+
+    /**
+     * Replaces all values held under a key with a single value
+     */
+    public void put(String key, Object value) {
+        List<Object> list = newList();
+        list.add(value);
+        reserve(1, key);
+        List<Object> previous = values.put(key, list);
+        if (previous != null) {
+            valueCount.addAndGet(-previous.size());
+        }
+    }
+
+    /**
+     * Gets the most recent value stored under a key
+     *
+     * @return latest value, or null if the key has no values
+     */
+    public String get(String key) {
+        Object value = latest(key);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Gets the most recent value stored under a key as the given type
+     *
+     * @throws IllegalStateException if the value is of another type
+     */
+    public <T> T get(String key, Class<T> type) {
+        Object value = latest(key);
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Scenario data " + key + " is a " + value.getClass().getSimpleName()
+                    + ", not a " + type.getSimpleName());
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Gets the most recent value stored under a key as an int, parsing it if it was stored as text
+     */
+    public int getInt(String key) {
+        Object value = latest(key);
+        if (value == null) {
+            throw new IllegalStateException("No scenario data stored for " + key);
+        }
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString());
+    }
+
+    /**
+     * Gets the most recent value stored under a key as a boolean, parsing it if it was stored as text
+     */
+    public boolean getBoolean(String key) {
+        Object value = latest(key);
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(String.valueOf(value));
+    }
+
+    /**
+     * Gets every value stored under a key, oldest first
+     *
+     * @return snapshot of the values, empty if the key has none
+     */
+    public List<String> getAll(String key) {
+        List<Object> list = values.get(key);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        List<String> snapshot = new ArrayList<>();
+        synchronized (list) {
+            for (Object value : list) {
+                snapshot.add(String.valueOf(value));
+            }
+        }
+        return snapshot;
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Number of values held across all keys
+     */
+    public int size() {
+        return valueCount.get();
+    }
+
+    private Object latest(String key) {
+        List<Object> list = values.get(key);
+        if (list == null) {
+            return null;
+        }
+        synchronized (list) {
+            return list.isEmpty() ? null : list.get(list.size() - 1);
+        }
+    }
+
+    private List<Object> newList() {
+        return shared ? Collections.synchronizedList(new ArrayList<>()) : new ArrayList<>();
+    }
+
+    private void reserve(int count, String key) {
+        if (valueCount.addAndGet(count) > maxValues) {
+            valueCount.addAndGet(-count);
+            throw new IllegalStateException("Scenario data store is full (" + maxValues + " values) while adding "
+                    + key + "; raise scenarioDataMaxValues or store less data per scenario");
+        }
+    }
+}
@@ -3,11 +3,12 @@ package configuration;
 import io.cucumber.java.Scenario;
 
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ScenarioStorage {
 
-    private static final HashMap<Thread, Scenario> map = new HashMap<>();
+    private static final Map<Thread, Scenario> map = new ConcurrentHashMap<>();
 
     public static void putScenario(Scenario scenario) {
         map.put(Thread.currentThread(), scenario);
@@ -16,4 +17,8 @@ public class ScenarioStorage {
     public static Scenario getScenario() {
         return map.get(Thread.currentThread());
     }
+
+    public static void removeScenario() {
+        map.remove(Thread.currentThread());
+    }
 }
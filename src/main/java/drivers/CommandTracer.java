@@ -0,0 +1,226 @@
+package drivers;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+import reporting.Log;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records every WebDriver command issued through a decorated driver, grouped by scenario and step.
+ * Calls the client answers without a round-trip, such as {@code manage()}, {@code switchTo()} or
+ * {@code getWrappedDriver()}, are not commands and are left out.
+ * Each scenario is written to target/traces as Chrome trace-event JSON, which opens in
+ * chrome://tracing or Perfetto with steps as spans and commands nested inside them.
+ * Enabled with traceWebDriverCommands=true.
+ */
+public class CommandTracer implements WebDriverListener {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final boolean enabled = Boolean.parseBoolean(
+            System.getProperty("traceWebDriverCommands", configReader.getProperty("traceWebDriverCommands")));
+    private static final Path TRACE_DIR = Paths.get("target", "traces");
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static final AtomicInteger scenarioCount = new AtomicInteger();
+    private static final ThreadLocal<ScenarioTrace> currentScenario = new ThreadLocal<>();
+
+    /**
+     * Checks whether command tracing is switched on by the traceWebDriverCommands property
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        ScenarioTrace trace = currentScenario.get();
+        if (trace != null && !WebDriverCalls.isLocalCall(method)) {
+            trace.callStarts.push(micros());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finishCall(target, method, null);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finishCall(target, method, e.getTargetException());
+    }
+
+    private void finishCall(Object target, Method method, Throwable error) {
+        ScenarioTrace trace = currentScenario.get();
+        if (trace == null || trace.callStarts.isEmpty() || WebDriverCalls.isLocalCall(method)) {
+            return;
+        }
+        long start = trace.callStarts.pop();
+        trace.events.add(new TraceEvent(method.getName(), category(target), start, micros() - start, trace.step,
+                error == null ? null : error.getClass().getSimpleName()));
+        trace.stepCommands.merge(method.getName(), 1, Integer::sum);
+    }
+
+    private static String category(Object target) {
+        if (target instanceof WebElement) {
+            return "WebElement";
+        }
+        if (target instanceof WebDriver) {
+            return "WebDriver";
+        }
+        if (target instanceof WebDriver.Navigation) {
+            return "Navigation";
+        }
+        if (target instanceof WebDriver.TargetLocator) {
+            return "TargetLocator";
+        }
+        return target.getClass().getSimpleName();
+    }
+
+    private static long micros() {
+        return System.nanoTime() / 1000;
+    }
+
+    /**
+     * Starts collecting commands for a scenario on the current thread
+     */
+    public static void startScenario(String scenarioName) {
+        if (enabled) {
+            currentScenario.set(new ScenarioTrace(scenarioName));
+        }
+    }
+
+    /**
+     * Marks the start of a step; following commands are attributed to it
+     */
+    public static void startStep(String stepText) {
+        ScenarioTrace trace = currentScenario.get();
+        if (trace != null) {
+            trace.step = stepText;
+            trace.stepStart = micros();
+            trace.stepCommands.clear();
+        }
+    }
+
+    /**
+     * Closes the current step and returns its command counts by command name
+     *
+     * @return counts of WebDriver commands issued during the step, empty when tracing is off
+     */
+    public static Map<String, Integer> finishStep() {
+        ScenarioTrace trace = currentScenario.get();
+        if (trace == null || trace.step == null) {
+            return new TreeMap<>();
+        }
+        Map<String, Integer> counts = new TreeMap<>(trace.stepCommands);
+        trace.events.add(new TraceEvent(trace.step, "step", trace.stepStart, micros() - trace.stepStart, null, null));
+        trace.step = null;
+        return counts;
+    }
+
+    /**
+     * Writes the current thread's scenario trace and stops collecting
+     */
+    public static void finishScenario() {
+        ScenarioTrace trace = currentScenario.get();
+        currentScenario.remove();
+        if (trace == null) {
+            return;
+        }
+        String fileName = String.format("%04d-%s.json", scenarioCount.incrementAndGet(),
+                trace.scenario.replaceAll("[^A-Za-z0-9_-]", "_"));
+        try {
+            Files.createDirectories(TRACE_DIR);
+            write(trace, TRACE_DIR.resolve(fileName));
+        } catch (IOException e) {
+            Log.info("Failed to write WebDriver trace " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    private static void write(ScenarioTrace trace, Path file) throws IOException {
+        long tid = Thread.currentThread().getId();
+        try (JsonGenerator json = jsonFactory.createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("traceEvents");
+            json.writeStartObject();
+            json.writeStringField("name", "thread_name");
+            json.writeStringField("ph", "M");
+            json.writeNumberField("pid", 1);
+            json.writeNumberField("tid", tid);
+            json.writeObjectFieldStart("args");
+            json.writeStringField("name", trace.scenario);
+            json.writeEndObject();
+            json.writeEndObject();
+            for (TraceEvent event : trace.events) {
+                json.writeStartObject();
+                json.writeStringField("name", event.name);
+                json.writeStringField("cat", event.category);
+                json.writeStringField("ph", "X");
+                json.writeNumberField("ts", event.start);
+                json.writeNumberField("dur", event.duration);
+                json.writeNumberField("pid", 1);
+                json.writeNumberField("tid", tid);
+                if (event.step != null || event.error != null) {
+                    json.writeObjectFieldStart("args");
+                    if (event.step != null) {
+                        json.writeStringField("step", event.step);
+                    }
+                    if (event.error != null) {
+                        json.writeStringField("error", event.error);
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static class ScenarioTrace {
+        private final String scenario;
+        private final List<TraceEvent> events = new ArrayList<>();
+        private final Deque<Long> callStarts = new ArrayDeque<>();
+        private final Map<String, Integer> stepCommands = new TreeMap<>();
+        private String step;
+        private long stepStart;
+
+        private ScenarioTrace(String scenario) {
+            this.scenario = scenario;
+        }
+    }
+
+    private static class TraceEvent {
+        private final String name;
+        private final String category;
+        private final long start;
+        private final long duration;
+        private final String step;
+        private final String error;
+
+        private TraceEvent(String name, String category, long start, long duration, String step, String error) {
+            this.name = name;
+            this.category = category;
+            this.start = start;
+            this.duration = duration;
+            this.step = step;
+            this.error = error;
+        }
+    }
+}
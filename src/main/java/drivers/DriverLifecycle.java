@@ -0,0 +1,287 @@
+package drivers;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import reporting.Log;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Tracks every WebDriver session started by {@link DriverManager} so none outlives the run.
+ * <ul>
+ *     <li>After each scenario the thread's session is recycled once it has served driverMaxScenarios
+ *     scenarios or its driver and browser processes use more than driverMaxRssMb of resident memory</li>
+ *     <li>Sessions whose thread has ended are quit as leaks</li>
+ *     <li>Every session still open is quit after the last scenario and again from a JVM shutdown hook,
+ *     which also kills driver processes that did not exit on quit</li>
+ *     <li>The driver and browser processes of open sessions are listed in a pid file per JVM under
+ *     target/driver-pids. With killOrphanDrivers=true, {@link #killOrphanedDrivers()} kills the processes
+ *     still alive from the files of earlier runs whose JVM has exited. A process is only killed if its
+ *     pid and start time both match the recorded ones, so other jobs' drivers and browsers are never touched</li>
+ * </ul>
+ * Process memory is read from /proc, so the memory limit only applies on Linux.
+ */
+public class DriverLifecycle {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final Path PID_DIR = Paths.get("target", "driver-pids");
+    private static final Path pidFile = PID_DIR.resolve(ProcessHandle.current().pid() + ".pids");
+    private static final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+    private static final AtomicInteger started = new AtomicInteger();
+    private static final AtomicInteger recycled = new AtomicInteger();
+    private static final AtomicInteger leaked = new AtomicInteger();
+    private static final int maxScenarios = getIntSetting("driverMaxScenarios", 25);
+    private static final long maxRssBytes = getIntSetting("driverMaxRssMb", 1536) * 1024L * 1024L;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverLifecycle::quitAll, "driver-lifecycle-shutdown"));
+    }
+
+    private DriverLifecycle() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts tracking a newly created driver
+     *
+     * @param driver    driver as handed to scenarios, possibly decorated
+     * @param rawDriver undecorated driver, used to find the driver process
+     */
+    static void register(WebDriver driver, WebDriver rawDriver) {
+        sessions.put(driver, new Session(findDriverProcess(rawDriver)));
+        started.incrementAndGet();
+        writePidFile();
+    }
+
+    /**
+     * Records the current thread as the owner of a driver
+     */
+    static void attach(WebDriver driver) {
+        Session session = sessions.get(driver);
+        if (session != null) {
+            session.owner = Thread.currentThread();
+        }
+    }
+
+    /**
+     * Stops tracking a driver that has been quit
+     */
+    static void release(WebDriver driver) {
+        Session session = sessions.remove(driver);
+        if (session != null) {
+            session.driverProcess.ifPresent(DriverLifecycle::destroyTree);
+            writePidFile();
+        }
+    }
+
+    /**
+     * Called at the end of every scenario: recycles the current thread's session when it has reached its
+     * scenario or memory limit, and quits sessions left behind by threads that have ended
+     */
+    public static void afterScenario() {
+        if (DriverManager.hasDriver()) {
+            WebDriver driver = DriverManager.getDriver();
+            Session session = sessions.get(driver);
+            if (session != null) {
+                session.scenarios++;
+                long rss = session.rssBytes();
+                if (session.scenarios >= maxScenarios || rss > maxRssBytes) {
+                    Log.info(String.format("Recycling WebDriver for thread %d after %d scenarios, %d MB resident",
+                            Thread.currentThread().getId(), session.scenarios, rss / (1024 * 1024)));
+                    recycled.incrementAndGet();
+                    DriverManager.quitDriver();
+                }
+            }
+        }
+        sessions.forEach((driver, session) -> {
+            if (session.owner != null && !session.owner.isAlive()) {
+                Log.info("Quitting WebDriver leaked by ended thread " + session.owner.getName());
+                leaked.incrementAndGet();
+                quit(driver);
+            }
+        });
+    }
+
+    /**
+     * Quits every tracked session, whichever thread owns it
+     */
+    public static void quitAll() {
+        sessions.keySet().forEach(DriverLifecycle::quit);
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            Log.info("Error quitting WebDriver: " + e.getMessage());
+        } finally {
+            release(driver);
+        }
+    }
+
+    /**
+     * Sessions started, recycled and leaked so far, and those still open
+     */
+    public static String summary() {
+        return String.format("WebDriver sessions: %d started, %d recycled, %d leaked, %d open",
+                started.get(), recycled.get(), leaked.get(), sessions.size());
+    }
+
+    // The driver service is started with --port=<port>, which identifies its process among our children
+    private static Optional<ProcessHandle> findDriverProcess(WebDriver rawDriver) {
+        if (!(rawDriver instanceof RemoteWebDriver)
+                || !(((RemoteWebDriver) rawDriver).getCommandExecutor() instanceof HttpCommandExecutor)) {
+            return Optional.empty();
+        }
+        int port = ((HttpCommandExecutor) ((RemoteWebDriver) rawDriver).getCommandExecutor()).getAddressOfRemoteServer().getPort();
+        String portArgument = "--port=" + port;
+        return ProcessHandle.current().descendants()
+                .filter(process -> process.info().arguments().map(args -> Arrays.asList(args).contains(portArgument)).orElse(false))
+                .findFirst();
+    }
+
+    /**
+     * Kills the driver and browser processes left running by earlier runs whose JVM has exited,
+     * as listed in their pid files, and removes those files
+     */
+    public static void killOrphanedDrivers() {
+        if (!Files.isDirectory(PID_DIR)) {
+            return;
+        }
+        int killed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(PID_DIR, "*.pids")) {
+            for (Path file : files) {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                // The first line is the JVM that wrote the file
+                if (lines.isEmpty() || findProcess(lines.get(0)).isPresent()) {
+                    continue;
+                }
+                for (String line : lines.subList(1, lines.size())) {
+                    Optional<ProcessHandle> process = findProcess(line);
+                    if (process.isPresent()) {
+                        destroyTree(process.get());
+                        killed++;
+                    }
+                }
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            Log.info("Failed to check driver pid files: " + e.getMessage());
+        }
+        if (killed > 0) {
+            Log.info("Killed " + killed + " driver or browser process(es) left running by an earlier run");
+        }
+    }
+
+    /**
+     * Finds a live process by a pid file line
+     *
+     * @param line "pid startMillis"
+     * @return the process, if one with that pid and start time is still running
+     */
+    private static Optional<ProcessHandle> findProcess(String line) {
+        String[] fields = line.trim().split(" ");
+        if (fields.length != 2) {
+            return Optional.empty();
+        }
+        try {
+            long startMillis = Long.parseLong(fields[1]);
+            return ProcessHandle.of(Long.parseLong(fields[0]))
+                    .filter(process -> process.info().startInstant().map(Instant::toEpochMilli).orElse(-1L) == startMillis);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Processes without a known start time are left out, since they could not be told apart from a reused pid
+    private static Optional<String> pidFileLine(ProcessHandle process) {
+        return process.info().startInstant().map(start -> process.pid() + " " + start.toEpochMilli());
+    }
+
+    private static synchronized void writePidFile() {
+        List<String> lines = new ArrayList<>();
+        pidFileLine(ProcessHandle.current()).ifPresent(lines::add);
+        sessions.values().forEach(session -> session.processes.forEach(process -> pidFileLine(process).ifPresent(lines::add)));
+        try {
+            if (lines.size() <= 1) {
+                Files.deleteIfExists(pidFile);
+            } else {
+                Files.createDirectories(PID_DIR);
+                Files.write(pidFile, lines, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            Log.info("Failed to write driver pid file: " + e.getMessage());
+        }
+    }
+
+    private static void destroyTree(ProcessHandle process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static int getIntSetting(String key, int defaultValue) {
+        String value = System.getProperty(key, configReader.getProperty(key));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid " + key + " value: " + value + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static class Session {
+        private final Optional<ProcessHandle> driverProcess;
+        // The driver and the browser processes it had started when the session was created
+        private final List<ProcessHandle> processes = new ArrayList<>();
+        private volatile Thread owner;
+        private int scenarios;
+
+        private Session(Optional<ProcessHandle> driverProcess) {
+            this.driverProcess = driverProcess;
+            driverProcess.ifPresent(process -> {
+                processes.add(process);
+                process.descendants().forEach(processes::add);
+            });
+        }
+
+        /**
+         * Resident memory of the driver process and the browser processes it started
+         *
+         * @return bytes, or 0 when the process or /proc is unavailable
+         */
+        private long rssBytes() {
+            return driverProcess
+                    .map(process -> Stream.concat(Stream.of(process), process.descendants())
+                            .mapToLong(Session::processRssBytes)
+                            .sum())
+                    .orElse(0L);
+        }
+
+        private static long processRssBytes(ProcessHandle process) {
+            try (Stream<String> lines = Files.lines(Paths.get("/proc", String.valueOf(process.pid()), "status"))) {
+                return lines.filter(line -> line.startsWith("VmRSS:"))
+                        .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                        .findFirst()
+                        .orElse(0L);
+            } catch (IOException | RuntimeException e) {
+                return 0L;
+            }
+        }
+    }
+}
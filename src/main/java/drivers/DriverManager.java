@@ -1,6 +1,7 @@
 package drivers;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -10,12 +11,25 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.safari.SafariOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 import reporting.Log;
+import reporting.StepTimings;
 import utilities.ConfigReader;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Thread-safe driver manager class that handles WebDriver initialization and cleanup
@@ -24,6 +38,8 @@ public class DriverManager {
 
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
     private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final Queue<CompletableFuture<WebDriver>> prewarmedDrivers = new ConcurrentLinkedQueue<>();
+    private static final Set<DriverManagerType> resolvedBinaries = new HashSet<>();
 
     private DriverManager() {
         // Private constructor to prevent instantiation
@@ -36,15 +52,102 @@ public class DriverManager {
      */
     public static WebDriver getDriver() {
         if (driverThreadLocal.get() == null) {
-            initializeDriver();
+            WebDriver prewarmed = takePrewarmedDriver();
+            if (prewarmed != null) {
+                driverThreadLocal.set(prewarmed);
+                DriverLifecycle.attach(prewarmed);
+            } else {
+                initializeDriver();
+            }
         }
         return driverThreadLocal.get();
     }
 
+    /**
+     * Starts browsers in the background so the first scenarios find a ready driver.
+     * Returns immediately; browsers start while Cucumber parses features and loads glue.
+     *
+     * @param count number of browsers to start
+     */
+    public static void prewarmDrivers(int count) {
+        if (count <= 0) {
+            return;
+        }
+        Log.info("Pre-warming " + count + " browser(s)");
+        ExecutorService starter = Executors.newFixedThreadPool(count, runnable -> {
+            Thread thread = new Thread(runnable, "driver-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < count; i++) {
+            prewarmedDrivers.add(CompletableFuture.supplyAsync(DriverManager::createDriver, starter));
+        }
+        starter.shutdown();
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverManager::quitPrewarmedDrivers, "driver-prewarm-cleanup"));
+    }
+
+    /**
+     * Hands a pre-warmed driver to the current thread, waiting if it is still starting
+     *
+     * @return ready driver, or null if none was pre-warmed or its startup failed
+     */
+    private static WebDriver takePrewarmedDriver() {
+        CompletableFuture<WebDriver> future;
+        while ((future = prewarmedDrivers.poll()) != null) {
+            try {
+                WebDriver driver = future.join();
+                Log.info("Using pre-warmed WebDriver for thread: " + Thread.currentThread().getId());
+                return driver;
+            } catch (CompletionException e) {
+                Log.info("Pre-warmed browser failed to start: " + e.getCause().getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Quits pre-warmed drivers that no scenario picked up
+     */
+    private static void quitPrewarmedDrivers() {
+        CompletableFuture<WebDriver> future;
+        while ((future = prewarmedDrivers.poll()) != null) {
+            if (!future.isCompletedExceptionally()) {
+                WebDriver driver = future.join();
+                try {
+                    driver.quit();
+                } catch (Exception e) {
+                    // Ignore errors while shutting down
+                } finally {
+                    DriverLifecycle.release(driver);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the current thread already has a WebDriver, without starting one
+     *
+     * @return true if a driver was initialized for this thread
+     */
+    public static boolean hasDriver() {
+        return driverThreadLocal.get() != null;
+    }
+
     /**
      * Initializes a new WebDriver instance for the current thread
      */
     public static void initializeDriver() {
+        driverThreadLocal.set(createDriver());
+        DriverLifecycle.attach(driverThreadLocal.get());
+        Log.info("WebDriver initialized successfully for thread: " + Thread.currentThread().getId());
+    }
+
+    /**
+     * Starts and configures a new WebDriver for the configured browser
+     *
+     * @return configured WebDriver instance
+     */
+    private static WebDriver createDriver() {
         String browser = configReader.getProperty("browser");
         // Check if browser is overridden by system property
         String sysBrowser = System.getProperty("browser");
@@ -78,8 +181,29 @@ public class DriverManager {
         }
 
         configureDriver(driver);
-        driverThreadLocal.set(driver);
-        Log.info("WebDriver initialized successfully for thread: " + Thread.currentThread().getId());
+        WebDriver decorated = decorateDriver(driver);
+        DriverLifecycle.register(decorated, driver);
+        return decorated;
+    }
+
+    /**
+     * Wraps the driver with the listeners enabled in config.properties
+     *
+     * @param driver WebDriver instance
+     * @return decorated driver, or the same driver when no listener is enabled
+     */
+    private static WebDriver decorateDriver(WebDriver driver) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (StepTimings.isEnabled()) {
+            listeners.add(new WebDriverTimingListener());
+        }
+        if (CommandTracer.isEnabled()) {
+            listeners.add(new CommandTracer());
+        }
+        if (listeners.isEmpty()) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
     }
 
     /**
@@ -131,13 +255,25 @@ public class DriverManager {
         Log.info("Configured WebDriver with implicitWait=" + implicitWait + "s, pageLoadTimeout=" + pageLoadTimeout + "s");
     }
 
+    /**
+     * Resolves a browser driver binary once per JVM, so parallel starts do not race on the download
+     *
+     * @param manager WebDriverManager for the browser
+     */
+    private static synchronized void setupDriverBinary(WebDriverManager manager) {
+        if (!resolvedBinaries.contains(manager.getDriverManagerType())) {
+            manager.setup();
+            resolvedBinaries.add(manager.getDriverManagerType());
+        }
+    }
+
     /**
      * Sets up Chrome WebDriver
      *
      * @return configured ChromeDriver instance
      */
     private static WebDriver setupChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+        setupDriverBinary(WebDriverManager.chromedriver());
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--remote-allow-origins=*");
 
@@ -155,7 +291,7 @@ public class DriverManager {
      * @return configured headless ChromeDriver instance
      */
     private static WebDriver setupHeadlessChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+        setupDriverBinary(WebDriverManager.chromedriver());
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--headless=new");
         options.addArguments("--window-size=1920,1080");
@@ -173,7 +309,7 @@ public class DriverManager {
      * @return configured FirefoxDriver instance
      */
     private static WebDriver setupFirefoxDriver() {
-        WebDriverManager.firefoxdriver().setup();
+        setupDriverBinary(WebDriverManager.firefoxdriver());
         FirefoxOptions options = new FirefoxOptions();
         // Add Firefox-specific options if needed
 
@@ -186,7 +322,7 @@ public class DriverManager {
      * @return configured EdgeDriver instance
      */
     private static WebDriver setupEdgeDriver() {
-        WebDriverManager.edgedriver().setup();
+        setupDriverBinary(WebDriverManager.edgedriver());
         EdgeOptions options = new EdgeOptions();
         // Add Edge-specific options if needed
 
@@ -216,6 +352,7 @@ public class DriverManager {
             } catch (Exception e) {
                 Log.info("Error quitting WebDriver: " + e.getMessage());
             } finally {
+                DriverLifecycle.release(driverThreadLocal.get());
                 driverThreadLocal.remove();
             }
         }
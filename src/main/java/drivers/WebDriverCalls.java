@@ -0,0 +1,34 @@
+package drivers;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+
+import java.lang.reflect.Method;
+
+/**
+ * Classifies calls seen by WebDriver listeners
+ */
+final class WebDriverCalls {
+
+    private WebDriverCalls() {
+    }
+
+    /**
+     * Checks whether a call is answered on the client: accessors of the helper objects whose own methods
+     * send the commands, wrapper and capability getters, and Object methods
+     */
+    static boolean isLocalCall(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        String name = method.getName();
+        if (owner == WebDriver.class) {
+            return name.equals("manage") || name.equals("switchTo") || name.equals("navigate");
+        }
+        if (owner == WebDriver.Options.class) {
+            return name.equals("timeouts") || name.equals("window") || name.equals("logs");
+        }
+        return owner == Object.class || owner == WrapsDriver.class || owner == WrapsElement.class
+                || owner == HasCapabilities.class;
+    }
+}
@@ -0,0 +1,48 @@
+package drivers;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+import reporting.StepTimings;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Times every WebDriver command issued through the decorated driver and adds it to the step's WebDriver time.
+ * Only the outermost call is timed, so commands triggered from inside another command are not counted twice.
+ * Calls the client answers itself, such as {@code manage()} or {@code switchTo()}, are neither timed nor counted.
+ */
+public class WebDriverTimingListener implements WebDriverListener {
+
+    private final ThreadLocal<long[]> callState = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (WebDriverCalls.isLocalCall(method)) {
+            return;
+        }
+        long[] state = callState.get();
+        if (state[0]++ == 0) {
+            state[1] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finishCall(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finishCall(method);
+    }
+
+    private void finishCall(Method method) {
+        if (WebDriverCalls.isLocalCall(method)) {
+            return;
+        }
+        long[] state = callState.get();
+        if (--state[0] == 0) {
+            StepTimings.recordWebDriver(System.nanoTime() - state[1]);
+        }
+    }
+}
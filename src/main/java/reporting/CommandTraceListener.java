@@ -0,0 +1,49 @@
+package reporting;
+
+import com.aventstack.extentreports.ExtentTest;
+import drivers.CommandTracer;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.util.Map;
+
+/**
+ * Feeds scenario and step boundaries to {@link CommandTracer} and reports each step's WebDriver round-trips
+ */
+public class CommandTraceListener implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!CommandTracer.isEnabled()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> CommandTracer.startScenario(event.getTestCase().getName()));
+        publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> CommandTracer.finishScenario());
+    }
+
+    private void onTestStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            CommandTracer.startStep(step.getStep().getKeyword() + step.getStep().getText());
+        }
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep)) {
+            return;
+        }
+        Map<String, Integer> commands = CommandTracer.finishStep();
+        int roundTrips = commands.values().stream().mapToInt(Integer::intValue).sum();
+        ExtentTest node = ExtentManager.getStepNode();
+        if (node != null && roundTrips > 0) {
+            node.info("WebDriver round-trips: " + roundTrips + " " + commands);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package reporting;
+
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Renders an event log written by {@link EventLogWriter} into report.html and junit.xml.
+ * The log is streamed twice, once for the totals and once for the scenarios, so memory use
+ * does not depend on the number of scenarios. The log of a run that did not finish ends without
+ * its gzip trailer, or part way through a record; the scenarios before that point are rendered.
+ * <p>
+ * Usage: {@code java -cp <test classpath> reporting.EventLogRenderer [events.ndjson.gz] [output dir]},
+ * defaulting to target/event-log/events.ndjson.gz and target/event-log.
+ */
+public class EventLogRenderer {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path eventLog;
+    private final Path outputDir;
+
+    public EventLogRenderer(Path eventLog, Path outputDir) {
+        this.eventLog = eventLog;
+        this.outputDir = outputDir;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path eventLog = args.length > 0 ? Paths.get(args[0]) : EventLogWriter.EVENT_LOG;
+        Path outputDir = args.length > 1 ? Paths.get(args[1]) : eventLog.toAbsolutePath().getParent();
+        Totals totals = new EventLogRenderer(eventLog, outputDir).render();
+        System.out.println("Rendered " + totals.scenarios + " scenarios (" + totals.failed + " failed, "
+                + totals.skipped + " skipped) to " + outputDir
+                + (totals.complete ? "" : "; the log ends early, so the run did not finish"));
+    }
+
+    /**
+     * Writes report.html and junit.xml into the output directory
+     *
+     * @return scenario totals of the log
+     */
+    public Totals render() throws IOException {
+        Totals totals = new Totals();
+        totals.complete = forEachScenario(totals::add);
+        Files.createDirectories(outputDir);
+        writeJUnit(totals);
+        writeHtml(totals);
+        return totals;
+    }
+
+    /**
+     * Streams the scenarios of the log
+     *
+     * @return false if the log ends early
+     */
+    private boolean forEachScenario(Consumer<JsonNode> consumer) throws IOException {
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(eventLog), 64 * 1024));
+             MappingIterator<JsonNode> scenarios = mapper.readerFor(JsonNode.class).readValues(in)) {
+            while (scenarios.hasNextValue()) {
+                consumer.accept(scenarios.nextValue());
+            }
+            return true;
+        } catch (EOFException | JsonEOFException e) {
+            // Missing gzip trailer or a record cut short: the writer stopped before the run ended
+            return false;
+        }
+    }
+
+    private void writeJUnit(Totals totals) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(outputDir.resolve("junit.xml"), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write(String.format(Locale.ROOT, "<testsuite name=\"Cucumber\" tests=\"%d\" failures=\"%d\" skipped=\"%d\" errors=\"0\" time=\"%.3f\">%n",
+                    totals.scenarios, totals.failed, totals.skipped, totals.durationMs / 1000.0));
+            forEachScenario(scenario -> write(out, junitTestCase(scenario)));
+            out.write("</testsuite>\n");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String junitTestCase(JsonNode scenario) {
+        StringBuilder xml = new StringBuilder();
+        xml.append(String.format(Locale.ROOT, "  <testcase classname=\"%s\" name=\"%s\" time=\"%.3f\"",
+                escape(scenario.path("uri").asText()), escape(scenario.path("name").asText()),
+                scenario.path("durationMs").asLong() / 1000.0));
+        String status = scenario.path("status").asText();
+        if ("PASSED".equals(status)) {
+            return xml.append("/>\n").toString();
+        }
+        xml.append(">\n");
+        if (isFailure(status)) {
+            String error = scenario.path("error").asText(status);
+            xml.append("    <failure message=\"").append(escape(firstLine(error))).append("\">")
+                    .append(escape(error)).append("</failure>\n");
+        } else {
+            xml.append("    <skipped message=\"").append(status).append("\"/>\n");
+        }
+        xml.append("    <system-out>").append(escape(stepsText(scenario))).append("</system-out>\n");
+        return xml.append("  </testcase>\n").toString();
+    }
+
+    private void writeHtml(Totals totals) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(outputDir.resolve("report.html"), StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Test results</title><style>"
+                    + "body{font-family:sans-serif;margin:2em}details{margin:.2em 0}summary{cursor:pointer}"
+                    + ".PASSED{color:#2e7d32}.FAILED{color:#c62828}.SKIPPED,.PENDING,.UNDEFINED,.AMBIGUOUS,.UNUSED{color:#ef6c00}"
+                    + "pre{background:#f5f5f5;padding:.5em;white-space:pre-wrap}ol{margin:.3em 0}</style></head><body>\n");
+            out.write(String.format(Locale.ROOT, "<h1>Test results</h1><p>%d scenarios: %d passed, %d failed, %d skipped; total time %.1f s</p>%n",
+                    totals.scenarios, totals.scenarios - totals.failed - totals.skipped, totals.failed, totals.skipped,
+                    totals.durationMs / 1000.0));
+            forEachScenario(scenario -> write(out, htmlScenario(scenario)));
+            out.write("</body></html>\n");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String htmlScenario(JsonNode scenario) {
+        String status = scenario.path("status").asText();
+        StringBuilder html = new StringBuilder();
+        html.append("<details><summary><span class=\"").append(status).append("\">").append(status).append("</span> ")
+                .append(escape(scenario.path("name").asText())).append(" <small>")
+                .append(escape(scenario.path("uri").asText())).append(':').append(scenario.path("line").asInt())
+                .append(", ").append(scenario.path("durationMs").asLong()).append(" ms</small></summary><ol>");
+        for (JsonNode step : scenario.path("steps")) {
+            String stepStatus = step.path("status").asText();
+            html.append("<li class=\"").append(stepStatus).append("\">").append(escape(step.path("text").asText()))
+                    .append(" <small>").append(step.path("durationMs").asLong()).append(" ms</small>");
+            if (step.has("error")) {
+                html.append("<pre>").append(escape(step.path("error").asText())).append("</pre>");
+            }
+            html.append("</li>");
+        }
+        return html.append("</ol></details>\n").toString();
+    }
+
+    private static String stepsText(JsonNode scenario) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode step : scenario.path("steps")) {
+            text.append(step.path("status").asText()).append(' ').append(step.path("text").asText()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static boolean isFailure(String status) {
+        return "FAILED".equals(status) || "AMBIGUOUS".equals(status) || "UNDEFINED".equals(status);
+    }
+
+    private static String firstLine(String text) {
+        int newline = text.indexOf('\n');
+        return newline < 0 ? text : text.substring(0, newline);
+    }
+
+    private static void write(Writer out, String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '"': escaped.append("&quot;"); break;
+                default:
+                    // Control characters other than tab and newlines are not allowed in XML
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Scenario counts and total duration of an event log
+     */
+    public static class Totals {
+        private int scenarios;
+        private int failed;
+        private int skipped;
+        private long durationMs;
+        private boolean complete;
+
+        private void add(JsonNode scenario) {
+            scenarios++;
+            String status = scenario.path("status").asText();
+            if (isFailure(status)) {
+                failed++;
+            } else if (!"PASSED".equals(status)) {
+                skipped++;
+            }
+            durationMs += scenario.path("durationMs").asLong();
+        }
+
+        public int getScenarios() {
+            return scenarios;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return false if the log ends early because the run did not finish
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package reporting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import utilities.ConfigReader;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the run's results as gzip-compressed NDJSON to target/event-log/events.ndjson.gz.
+ * Each line is one finished scenario with its steps, written as soon as the scenario ends, so only
+ * the scenarios still running are held in memory however large the suite is. The compressed stream is
+ * flushed after every scenario, so a run that dies before its end leaves a log whose finished scenarios
+ * can still be read; only the gzip trailer is missing.
+ * {@link EventLogRenderer} turns the log into HTML and JUnit XML offline.
+ * Enabled with eventLog=true.
+ */
+public class EventLogWriter implements ConcurrentEventListener {
+
+    public static final Path EVENT_LOG = Paths.get("target", "event-log", "events.ndjson.gz");
+    private static final int MAX_ERROR_LENGTH = 4000;
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+
+    private final Map<UUID, ScenarioRecord> running = new ConcurrentHashMap<>();
+    private final Path eventLog;
+    private final boolean enabled;
+    private JsonGenerator json;
+
+    public EventLogWriter() {
+        this(EVENT_LOG, Boolean.parseBoolean(System.getProperty("eventLog", configReader.getProperty("eventLog"))));
+    }
+
+    private EventLogWriter(Path eventLog, boolean enabled) {
+        this.eventLog = eventLog;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Creates a writer to another file that is enabled whatever the eventLog setting, e.g. to check that
+     * {@link EventLogRenderer} reads what it writes
+     */
+    public static EventLogWriter writingTo(Path eventLog) {
+        return new EventLogWriter(eventLog, true);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!enabled) {
+            return;
+        }
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onTestRunFinished);
+    }
+
+    private void onTestCaseStarted(TestCaseStarted event) {
+        running.put(event.getTestCase().getId(), new ScenarioRecord(event.getInstant().toEpochMilli()));
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        ScenarioRecord scenario = running.get(event.getTestCase().getId());
+        if (scenario != null && event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            scenario.steps.add(new StepRecord(step.getStep().getKeyword() + step.getStep().getText(), event.getResult()));
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        ScenarioRecord scenario = running.remove(event.getTestCase().getId());
+        if (scenario != null) {
+            write(event.getTestCase(), event.getResult(), scenario);
+        }
+    }
+
+    private synchronized void write(TestCase testCase, Result result, ScenarioRecord scenario) {
+        try {
+            if (json == null) {
+                open();
+            }
+            json.writeStartObject();
+            json.writeStringField("name", testCase.getName());
+            json.writeStringField("uri", testCase.getUri().toString());
+            json.writeNumberField("line", testCase.getLocation().getLine());
+            json.writeArrayFieldStart("tags");
+            for (String tag : testCase.getTags()) {
+                json.writeString(tag);
+            }
+            json.writeEndArray();
+            json.writeStringField("status", result.getStatus().name());
+            json.writeNumberField("start", scenario.start);
+            json.writeNumberField("durationMs", result.getDuration().toMillis());
+            writeError(errorText(result.getError()));
+            json.writeArrayFieldStart("steps");
+            for (StepRecord step : scenario.steps) {
+                json.writeStartObject();
+                json.writeStringField("text", step.text);
+                json.writeStringField("status", step.status);
+                json.writeNumberField("durationMs", step.durationMs);
+                writeError(step.error);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+            // Pushes the record through the deflater, so it is readable even if the run never ends
+            json.flush();
+        } catch (IOException e) {
+            Log.logger.warn("Failed to write event log record for " + testCase.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void writeError(String error) throws IOException {
+        if (error != null) {
+            json.writeStringField("error", error);
+        }
+    }
+
+    private static String errorText(Throwable error) {
+        if (error == null) {
+            return null;
+        }
+        String message = error.toString();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(eventLog.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(eventLog, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        // syncFlush makes flush() emit everything compressed so far
+        GZIPOutputStream out = new GZIPOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), 64 * 1024, true);
+        json = new JsonFactory().createGenerator(out);
+        // One scenario per line; each record writes its own newline so a flushed record is complete
+        json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+    }
+
+    private synchronized void onTestRunFinished(TestRunFinished event) {
+        if (json != null) {
+            try {
+                json.close();
+                Log.logger.info("Event log written to " + eventLog);
+            } catch (IOException e) {
+                Log.logger.warn("Failed to close event log: " + e.getMessage());
+            }
+            json = null;
+        }
+    }
+
+    private static class ScenarioRecord {
+        private final long start;
+        // Steps of one scenario finish on the scenario's thread, one at a time
+        private final List<StepRecord> steps = new ArrayList<>();
+
+        private ScenarioRecord(long start) {
+            this.start = start;
+        }
+    }
+
+    private static class StepRecord {
+        private final String text;
+        private final String status;
+        private final long durationMs;
+        private final String error;
+
+        // Keeps only what is written, not the exception and its stack trace
+        private StepRecord(String text, Result result) {
+            this.text = text;
+            this.status = result.getStatus().name();
+            this.durationMs = result.getDuration().toMillis();
+            this.error = errorText(result.getError());
+        }
+    }
+}
@@ -7,16 +7,22 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import utilities.ConfigReader;
 import utilities.HelperClass;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 public class ExtentManager {
     private static final ExtentReports extentReports = new ExtentReports();
     private static final ThreadLocal<ExtentTest> scenarioTest = new ThreadLocal<>();
     private static final ThreadLocal<ExtentTest> stepNode = new ThreadLocal<>();
     private static final ConcurrentMap<String, ExtentTest> testMap = new ConcurrentHashMap<>();
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    // Writing the report re-renders every test, so it is written at most this often while scenarios run
+    private static final long flushIntervalNanos = TimeUnit.SECONDS.toNanos(getFlushIntervalSeconds());
+    private static long lastFlushNanos = System.nanoTime();
 
     static {
         String extentFlag= HelperClass.getExtentReportFlag();
@@ -27,8 +33,19 @@ public class ExtentManager {
             reporter.config().setDocumentTitle("Automation Test Report");
             reporter.config().setReportName("Parallel Test Execution Report");
             extentReports.attachReporter(reporter);
+            Runtime.getRuntime().addShutdownHook(new Thread(ExtentManager::flush, "extent-report-flush"));
         }}
 
+    private static long getFlushIntervalSeconds() {
+        String value = System.getProperty("extentFlushIntervalSeconds", configReader.getProperty("extentFlushIntervalSeconds"));
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            Log.logger.info("Invalid extentFlushIntervalSeconds value: {}. Using default: 30", value);
+            return 30;
+        }
+    }
+
     public static synchronized ExtentReports getInstance() {
         return extentReports;
     }
@@ -37,6 +54,7 @@ public class ExtentManager {
         ExtentTest test = extentReports.createTest(scenarioName);
         scenarioTest.set(test);
         testMap.put(Thread.currentThread().getName(), test);
+        ReportVolume.startScenario();
     }
 
     public static ExtentTest getScenarioTest() {
@@ -53,9 +71,23 @@ public class ExtentManager {
     }
 
     public static synchronized void endScenario() {
-        extentReports.flush();
+        String omitted = ReportVolume.endScenario();
+        if (omitted != null && getScenarioTest() != null) {
+            getScenarioTest().info(omitted);
+        }
+        if (System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+            flush();
+        }
         scenarioTest.remove();
         stepNode.remove();
     }
+
+    /**
+     * Writes the report with every scenario finished so far
+     */
+    public static synchronized void flush() {
+        extentReports.flush();
+        lastFlushNanos = System.nanoTime();
+    }
 }
 
@@ -1,10 +1,13 @@
 package reporting;
 
 import configuration.ScenarioStorage;
+import io.cucumber.java.Scenario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utilities.HelperClass;
 
+import java.nio.file.Paths;
+
 public class Log {
 
     // Updated to use the correct class for the logger name
@@ -18,12 +21,24 @@ public class Log {
     public static void Loginfo(String message, boolean flag) {
         logger.info(message);
         boolean extentFlag =HelperClass.getExtentReportFlag().equals("true");
-        if(extentFlag){
-            StepLogger.log(message);
+        boolean inStep = extentFlag && ExtentManager.getStepNode() != null;
+        // For cucumber report generation --- only threads running a scenario have one registered
+        Scenario scenario = flag ? ScenarioStorage.getScenario() : null;
+        if (!inStep && scenario == null) {
+            return;
+        }
+        // Reports get a sample of long-running scenarios' messages, with long ones cut and linked
+        ReportVolume.Entry entry = ReportVolume.admit(message);
+        if (entry == null) {
+            return;
+        }
+        String attachment = entry.getAttachment();
+        if (inStep) {
+            StepLogger.log(attachment == null ? entry.getText()
+                    : entry.getText() + " <a href='attachments/" + Paths.get(attachment).getFileName() + "'>full message</a>");
         }
-        // For cucumber report generation --- need to fix
-        if (flag) {
-            ScenarioStorage.getScenario().log(message);
+        if (scenario != null) {
+            scenario.log(attachment == null ? entry.getText() : entry.getText() + "\nFull message: " + attachment);
         }
     }
 }
\ No newline at end of file
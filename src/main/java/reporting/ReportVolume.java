@@ -0,0 +1,135 @@
+package reporting;
+
+import org.apache.logging.log4j.ThreadContext;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which log messages are copied into the Extent and Cucumber reports, so report size and the
+ * in-memory Extent tree stay bounded however long the run. The log files always get every message.
+ * <ul>
+ *     <li>The first reportLogsPerScenario messages of a scenario are kept, then one in reportLogSampleRate</li>
+ *     <li>No more than reportMaxNodesPerScenario messages are kept per scenario</li>
+ *     <li>Messages longer than reportMessageMaxChars are cut, and the full text is written to
+ *     target/ExtentReport/attachments and linked from the report</li>
+ * </ul>
+ * Step failures are reported by the listeners directly and are never sampled.
+ */
+public class ReportVolume {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final Path ATTACHMENT_DIR = Paths.get("target", "ExtentReport", "attachments");
+    private static final int logsPerScenario = getIntSetting("reportLogsPerScenario", 200);
+    private static final int sampleRate = Math.max(1, getIntSetting("reportLogSampleRate", 10));
+    private static final int maxNodesPerScenario = getIntSetting("reportMaxNodesPerScenario", 500);
+    private static final int maxMessageChars = getIntSetting("reportMessageMaxChars", 2000);
+    private static final AtomicLong attachmentCount = new AtomicLong();
+    private static final ThreadLocal<ScenarioVolume> currentScenario = ThreadLocal.withInitial(ScenarioVolume::new);
+
+    private ReportVolume() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts counting messages for a new scenario on this thread
+     */
+    public static void startScenario() {
+        currentScenario.set(new ScenarioVolume());
+    }
+
+    /**
+     * Stops counting for this thread's scenario
+     *
+     * @return note about the messages left out of the report, or null if none were
+     */
+    public static String endScenario() {
+        ScenarioVolume volume = currentScenario.get();
+        currentScenario.remove();
+        if (volume.omitted == 0) {
+            return null;
+        }
+        return volume.omitted + " of " + volume.messages + " log messages were left out of the report; "
+                + "the scenario log under target/logs/scenarios has all of them";
+    }
+
+    /**
+     * Admits a message to the reports
+     *
+     * @param message log message
+     * @return message as it should appear in the reports, or null to leave it out
+     */
+    public static Entry admit(String message) {
+        ScenarioVolume volume = currentScenario.get();
+        volume.messages++;
+        boolean sampledOut = volume.messages > logsPerScenario && (volume.messages - logsPerScenario) % sampleRate != 0;
+        if (sampledOut || volume.kept >= maxNodesPerScenario) {
+            volume.omitted++;
+            return null;
+        }
+        volume.kept++;
+        if (message.length() <= maxMessageChars) {
+            return new Entry(message, null);
+        }
+        return new Entry(message.substring(0, maxMessageChars) + "... (" + message.length() + " chars)", writeAttachment(message));
+    }
+
+    private static String writeAttachment(String message) {
+        String scenarioId = ThreadContext.get("scenarioId");
+        String name = (scenarioId != null ? scenarioId : "log") + "-" + attachmentCount.incrementAndGet() + ".txt";
+        Path file = ATTACHMENT_DIR.resolve(name);
+        try {
+            Files.createDirectories(ATTACHMENT_DIR);
+            Files.write(file, message.getBytes(StandardCharsets.UTF_8));
+            return file.toString();
+        } catch (IOException e) {
+            Log.logger.info("Failed to write report attachment {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int getIntSetting(String key, int defaultValue) {
+        String value = System.getProperty(key, configReader.getProperty(key));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.logger.info("Invalid {} value: {}. Using default: {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Message text for the reports, with the file holding the full text when it was cut
+     */
+    public static class Entry {
+        private final String text;
+        private final String attachment;
+
+        private Entry(String text, String attachment) {
+            this.text = text;
+            this.attachment = attachment;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return path of the full message, or null if the message was not cut
+         */
+        public String getAttachment() {
+            return attachment;
+        }
+    }
+
+    private static class ScenarioVolume {
+        private int messages;
+        private int kept;
+        private int omitted;
+    }
+}
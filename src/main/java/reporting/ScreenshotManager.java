@@ -0,0 +1,238 @@
+package reporting;
+
+import com.aventstack.extentreports.ExtentTest;
+import drivers.DriverManager;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import utilities.ConfigReader;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Captures screenshots after steps and hands them to a background writer.
+ * The step thread only grabs the PNG bytes and hashes them; downscaling, JPEG encoding and
+ * disk writes run on the writer threads. Identical frames share one file, named by their hash,
+ * so the report path is known before the file is written. When the writers fall behind and their
+ * queue is full, further screenshots are dropped and logged rather than slowing the step thread.
+ */
+public class ScreenshotManager {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final Path SCREENSHOT_DIR = Paths.get("target", "screenshots");
+    private static final int MAX_REMEMBERED_FRAMES = 10_000;
+    // Recently written frames, least recently captured first; a frame dropped from here is written again if captured
+    private static final Set<String> writtenFrames = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_REMEMBERED_FRAMES;
+                }
+            }));
+    // Frames queued or being written; a frame whose write failed is in neither set
+    private static final Set<String> pendingFrames = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-writer-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final boolean onFailure = getFlag("takeScreenshotOnFailure");
+    private static final boolean everyStep = getFlag("screenshotEveryStep");
+    private static final double scale = getDouble("screenshotScale", 0.5);
+    private static final float quality = (float) getDouble("screenshotQuality", 0.7);
+
+    private ScreenshotManager() {
+        // Private constructor to prevent instantiation
+    }
+
+    private static boolean getFlag(String key) {
+        return Boolean.parseBoolean(System.getProperty(key, configReader.getProperty(key)));
+    }
+
+    private static double getDouble(String key, double defaultValue) {
+        String value = System.getProperty(key, configReader.getProperty(key));
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid " + key + " value: " + value + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Checks whether a step with the given outcome should be captured
+     */
+    public static boolean shouldCapture(boolean stepFailed) {
+        return everyStep || (onFailure && stepFailed);
+    }
+
+    /**
+     * Captures the current thread's browser without waiting for encoding or disk I/O.
+     * Nothing is captured when the thread has no driver.
+     *
+     * @return path of the screenshot file, or null if nothing was captured
+     */
+    public static String capture() {
+        if (!DriverManager.hasDriver()) {
+            return null;
+        }
+        WebDriver driver = DriverManager.getDriver();
+        if (!(driver instanceof TakesScreenshot)) {
+            Log.info("Failed to take screenshot: " + driver.getClass().getSimpleName() + " cannot take screenshots");
+            return null;
+        }
+        return capture((TakesScreenshot) driver);
+    }
+
+    /**
+     * Captures a screenshot from the given source without waiting for encoding or disk I/O
+     *
+     * @return path of the screenshot file, or null if the screenshot failed or was dropped
+     */
+    public static String capture(TakesScreenshot source) {
+        byte[] png;
+        try {
+            png = source.getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            Log.info("Failed to take screenshot: " + e.getMessage());
+            return null;
+        }
+        String hash = sha256(png);
+        Path file = SCREENSHOT_DIR.resolve(hash + ".jpg");
+        if (!writtenFrames.contains(hash) && pendingFrames.add(hash)) {
+            try {
+                writer.execute(() -> {
+                    try {
+                        if (write(png, file)) {
+                            writtenFrames.add(hash);
+                        }
+                    } finally {
+                        pendingFrames.remove(hash);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendingFrames.remove(hash);
+                Log.info("Screenshot writer queue is full, dropping screenshot " + file.getFileName());
+                return null;
+            }
+        }
+        return file.toString();
+    }
+
+    /**
+     * Captures a screenshot and links it from the current Extent step node
+     *
+     * @return path of the screenshot file, or null if nothing was captured
+     */
+    public static String captureForStep() {
+        String path = capture();
+        ExtentTest step = ExtentManager.getStepNode();
+        if (path != null && step != null) {
+            // The report lives in target/ExtentReport, next to the screenshots directory
+            step.addScreenCaptureFromPath("../screenshots/" + Paths.get(path).getFileName());
+        }
+        return path;
+    }
+
+    /**
+     * Encodes and writes one frame
+     *
+     * @return true if the file was written
+     */
+    private static boolean write(byte[] png, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                Files.write(file, png);
+                return true;
+            }
+            BufferedImage scaled = downscale(image);
+            ImageWriter jpegWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+                jpegWriter.setOutput(out);
+                jpegWriter.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                jpegWriter.dispose();
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Log.info("Failed to write screenshot " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static BufferedImage downscale(BufferedImage image) {
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+        // JPEG has no alpha channel, so always redraw into an RGB image
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Waits up to a minute for the screenshots queued so far to be written. The writer threads keep
+     * running, so screenshots captured afterwards are still written.
+     */
+    public static void awaitPendingWrites() {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        try {
+            while (!pendingFrames.isEmpty()) {
+                if (System.nanoTime() > deadline) {
+                    Log.info("Timed out waiting for " + pendingFrames.size() + " screenshots to be written");
+                    return;
+                }
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package reporting;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the durations of browser steps across all scenario threads for the adaptive concurrency
+ * controller. Steps of {@code @api} scenarios without {@code @browser} are left out, as the scheduler
+ * runs them outside the browser slots and their timing says nothing about browser load.
+ * Recording is two counter additions per step, so the plugin stays registered in every run.
+ */
+public class StepLatency implements ConcurrentEventListener {
+
+    private static final LongAdder steps = new LongAdder();
+    private static final LongAdder totalNanos = new LongAdder();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        List<String> tags = event.getTestCase().getTags();
+        if (event.getTestStep() instanceof PickleStepTestStep && (!tags.contains("@api") || tags.contains("@browser"))) {
+            totalNanos.add(event.getResult().getDuration().toNanos());
+            steps.increment();
+        }
+    }
+
+    /**
+     * Average duration of the browser steps finished since the previous call, and starts a new window
+     *
+     * @return average step time in milliseconds, or -1 if no browser step finished in the window
+     */
+    public static double drainAverageMillis() {
+        long count = steps.sumThenReset();
+        long nanos = totalNanos.sumThenReset();
+        return count == 0 ? -1 : nanos / (double) count / 1_000_000;
+    }
+}
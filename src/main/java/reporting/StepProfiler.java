@@ -0,0 +1,113 @@
+package reporting;
+
+import com.aventstack.extentreports.ExtentTest;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Splits each step's wall time into WebDriver time, HTTP time and framework time.
+ * The breakdown is added to the step's Extent node and appended to target/profiling/step-timings.csv.
+ * Active only when profileSteps=true, which also makes DriverManager decorate drivers with timing listeners.
+ * HTTP time is the time the step's thread was blocked on HTTP, including waits for requests sent from pool threads.
+ */
+public class StepProfiler implements ConcurrentEventListener {
+
+    private static final Path CSV_FILE = Paths.get("target", "profiling", "step-timings.csv");
+    private final ThreadLocal<Long> stepStart = new ThreadLocal<>();
+    private BufferedWriter csv;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!StepTimings.isEnabled()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onTestRunFinished);
+    }
+
+    private void onTestStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            StepTimings.reset();
+            stepStart.set(System.nanoTime());
+        }
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep) || stepStart.get() == null) {
+            return;
+        }
+        long total = System.nanoTime() - stepStart.get();
+        stepStart.remove();
+        StepTimings timings = StepTimings.current();
+        StepTimings.finish();
+        long framework = Math.max(0, total - timings.getWebDriverNanos() - timings.getHttpNanos());
+        PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+
+        ExtentTest node = ExtentManager.getStepNode();
+        if (node != null) {
+            node.info(String.format("Step time %.1f ms = WebDriver %.1f ms (%d calls) + HTTP %.1f ms (%d calls) + framework %.1f ms",
+                    millis(total), millis(timings.getWebDriverNanos()), timings.getWebDriverCalls(),
+                    millis(timings.getHttpNanos()), timings.getHttpCalls(), millis(framework)));
+        }
+        writeRow(String.join(",",
+                quote(event.getTestCase().getName()),
+                quote(step.getStep().getKeyword() + step.getStep().getText()),
+                event.getResult().getStatus().name(),
+                format(total),
+                format(timings.getWebDriverNanos()),
+                String.valueOf(timings.getWebDriverCalls()),
+                format(timings.getHttpNanos()),
+                String.valueOf(timings.getHttpCalls()),
+                format(framework)));
+    }
+
+    private synchronized void writeRow(String row) {
+        try {
+            if (csv == null) {
+                Files.createDirectories(CSV_FILE.getParent());
+                csv = Files.newBufferedWriter(CSV_FILE, StandardCharsets.UTF_8);
+                csv.write("scenario,step,status,total_ms,webdriver_ms,webdriver_calls,http_ms,http_calls,framework_ms");
+                csv.newLine();
+            }
+            csv.write(row);
+            csv.newLine();
+        } catch (IOException e) {
+            Log.logger.warn("Failed to write step timing: " + e.getMessage());
+        }
+    }
+
+    private synchronized void onTestRunFinished(TestRunFinished event) {
+        if (csv != null) {
+            try {
+                csv.close();
+            } catch (IOException e) {
+                Log.logger.warn("Failed to close step timings file: " + e.getMessage());
+            }
+            csv = null;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String format(long nanos) {
+        return String.format("%.3f", millis(nanos));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
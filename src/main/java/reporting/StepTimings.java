@@ -0,0 +1,107 @@
+package reporting;
+
+import utilities.ConfigReader;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-thread accumulators of time spent waiting on the browser and on HTTP calls during the current step.
+ * Whatever remains of a step's wall time is framework time: logging, highlighting, report writes, payload building.
+ * Only the step's own thread records time. Calls made on pool threads are not added, since they overlap;
+ * instead the step's thread records the time it waits for them, see {@link #awaitHttp(CompletableFuture)}.
+ */
+public class StepTimings {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final boolean enabled = Boolean.parseBoolean(
+            System.getProperty("profileSteps", configReader.getProperty("profileSteps")));
+    private static final ThreadLocal<StepTimings> current = ThreadLocal.withInitial(StepTimings::new);
+
+    private long webDriverNanos;
+    private long httpNanos;
+    private int webDriverCalls;
+    private int httpCalls;
+    private boolean inStep;
+
+    /**
+     * Checks whether step profiling is switched on by the profileSteps property
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static StepTimings current() {
+        return current.get();
+    }
+
+    /**
+     * Adds the duration of one WebDriver command to the current thread's step
+     */
+    public static void recordWebDriver(long nanos) {
+        StepTimings timings = current.get();
+        if (enabled && timings.inStep) {
+            timings.webDriverNanos += nanos;
+            timings.webDriverCalls++;
+        }
+    }
+
+    /**
+     * Adds the duration of one blocking HTTP call to the current thread's step
+     */
+    public static void recordHttp(long nanos) {
+        StepTimings timings = current.get();
+        if (enabled && timings.inStep) {
+            timings.httpNanos += nanos;
+            timings.httpCalls++;
+        }
+    }
+
+    /**
+     * Waits for HTTP work running on other threads and adds the wait to the current thread's step
+     *
+     * @return the future's result
+     */
+    public static <T> T awaitHttp(CompletableFuture<T> future) {
+        long start = System.nanoTime();
+        try {
+            return future.join();
+        } finally {
+            recordHttp(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Clears the current thread's accumulators at the start of a step
+     */
+    public static void reset() {
+        StepTimings timings = current.get();
+        timings.webDriverNanos = 0;
+        timings.httpNanos = 0;
+        timings.webDriverCalls = 0;
+        timings.httpCalls = 0;
+        timings.inStep = true;
+    }
+
+    /**
+     * Stops recording on the current thread once its step has been reported
+     */
+    public static void finish() {
+        current.get().inStep = false;
+    }
+
+    public long getWebDriverNanos() {
+        return webDriverNanos;
+    }
+
+    public long getHttpNanos() {
+        return httpNanos;
+    }
+
+    public int getWebDriverCalls() {
+        return webDriverCalls;
+    }
+
+    public int getHttpCalls() {
+        return httpCalls;
+    }
+}
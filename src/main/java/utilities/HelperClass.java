@@ -1,9 +1,6 @@
 package utilities;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import configuration.ScenarioDataStore;
 
 public class HelperClass {
     private static final ConfigReader configReader = new ConfigReader("config.properties");
@@ -11,7 +8,6 @@ public class HelperClass {
     private static String AddExtentReporting;
     private static String retryCount;
     private static String AddLogInReport;
-    public static final ThreadLocal<Map<String, List<String>>> dataMap = ThreadLocal.withInitial(HashMap::new);
 
 
     public static String getEnv() {
@@ -50,9 +46,13 @@ public class HelperClass {
 
 
 
+    /**
+     * Adds a value to the current scenario's data; the values are discarded when the scenario ends
+     *
+     * @deprecated use {@link ScenarioDataStore#current()} directly
+     */
+    @Deprecated
     public static void addMultiValuesMap(String key, String value) {
-        Map<String, List<String>> map = dataMap.get();
-        map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
-
+        ScenarioDataStore.current().add(key, value);
     }
 }
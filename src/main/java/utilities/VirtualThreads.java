@@ -0,0 +1,82 @@
+package utilities;
+
+import reporting.Log;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates virtual-thread executors when the JVM supports them (Java 21+)
+ * and falls back to daemon platform threads on older runtimes
+ */
+public class VirtualThreads {
+
+    private static final Method newVirtualThreadPerTaskExecutor = lookupFactory();
+
+    private VirtualThreads() {
+        // Private constructor to prevent instantiation
+    }
+
+    private static Method lookupFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether virtual threads are available in the running JVM
+     */
+    public static boolean isSupported() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    /**
+     * Creates an executor that starts one thread per task
+     *
+     * @param name prefix for platform thread names when virtual threads are unavailable
+     * @return virtual-thread-per-task executor, or a cached daemon thread pool as fallback
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        ExecutorService executor = newVirtualThreadExecutor();
+        return executor != null ? executor : Executors.newCachedThreadPool(daemonThreads(name));
+    }
+
+    /**
+     * Creates an executor that starts one thread per task, capping the platform threads of the fallback.
+     * Use it when tasks are not throttled before they are submitted, so a fallback cannot start a
+     * platform thread for every queued task at once.
+     *
+     * @param name               prefix for platform thread names when virtual threads are unavailable
+     * @param maxPlatformThreads size of the fallback pool; further tasks queue
+     * @return virtual-thread-per-task executor, or a fixed daemon thread pool as fallback
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name, int maxPlatformThreads) {
+        ExecutorService executor = newVirtualThreadExecutor();
+        return executor != null ? executor : Executors.newFixedThreadPool(maxPlatformThreads, daemonThreads(name));
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (newVirtualThreadPerTaskExecutor != null) {
+            try {
+                return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                Log.info("Virtual threads unavailable, using platform threads: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -3,15 +3,17 @@ package pages;
 import drivers.DriverManager;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import reporting.Log;
+import reporting.ScreenshotManager;
 import utilities.ConfigReader;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -23,35 +25,41 @@ public class BasePage {
     protected WebDriverWait wait;
     protected Actions actions;
     protected JavascriptExecutor js;
+    private LocatorService locatorService;
 
     private static final ConfigReader configReader = new ConfigReader("config.properties");
 
-    // Default timeout values
-    private int DEFAULT_WAIT_TIMEOUT;
+    // Default timeout values, parsed once for all page objects
+    private static final int DEFAULT_WAIT_TIMEOUT = getDefaultWaitTimeout();
+
+    // "polling" (default) uses WebDriverWait; "observer" waits inside the page with one async script per wait
+    private static final boolean OBSERVER_WAITS = "observer".equalsIgnoreCase(
+            System.getProperty("elementWaitStrategy", configReader.getProperty("elementWaitStrategy")));
 
     /**
-     * Constructor initializes WebDriver and utilities
+     * Constructor initializes WebDriver and utilities.
+     * Prefer {@link PageRegistry#get(Class)} so each page is created once per scenario.
      */
     public BasePage() {
-        // Initialize DEFAULT_WAIT_TIMEOUT
-        String timeoutStr = configReader.getProperty("explicitWaitTimeout");
-        int waitTimeout = 15; // Default value
+        driver = DriverManager.getDriver();
+        // Wait, actions and JS helpers are shared by every page of the same driver
+        PageRegistry.DriverHelpers helpers = PageRegistry.helpersFor(driver, DEFAULT_WAIT_TIMEOUT);
+        wait = helpers.wait;
+        actions = helpers.actions;
+        js = helpers.js;
+
+        // Initialize WebElements annotated with @FindBy from the cached field metadata of this class
+        PageRegistry.initElements(driver, this);
+    }
 
+    private static int getDefaultWaitTimeout() {
+        String timeoutStr = configReader.getProperty("explicitWaitTimeout");
         try {
-            waitTimeout = Integer.parseInt(timeoutStr);
+            return Integer.parseInt(timeoutStr);
         } catch (NumberFormatException e) {
             Log.info("Invalid explicitWaitTimeout value: " + timeoutStr + ". Using default: 15");
+            return 15;
         }
-
-        DEFAULT_WAIT_TIMEOUT = waitTimeout;
-
-        driver = DriverManager.getDriver();
-        wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_WAIT_TIMEOUT));
-        actions = new Actions(driver);
-        js = (JavascriptExecutor) driver;
-
-        // Initialize WebElements annotated with @FindBy
-        PageFactory.initElements(driver, this);
     }
 
     /**
@@ -201,30 +209,39 @@ public class BasePage {
      * Waits for element to be visible
      */
     public WebElement waitForElementVisibility(WebElement element) {
-        return wait.until(ExpectedConditions.visibilityOf(element));
+        return waitForElementVisibility(element, DEFAULT_WAIT_TIMEOUT);
     }
 
     /**
      * Waits for element to be visible with custom timeout
      */
     public WebElement waitForElementVisibility(WebElement element, int timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return wait.until(ExpectedConditions.visibilityOf(element));
+        if (OBSERVER_WAITS) {
+            return ObserverWait.waitFor(driver, element, ObserverWait.Condition.VISIBLE, Duration.ofSeconds(timeoutInSeconds));
+        }
+        return waitFor(timeoutInSeconds).until(ExpectedConditions.visibilityOf(element));
     }
 
     /**
      * Waits for element to be clickable
      */
     public WebElement waitForElementToBeClickable(WebElement element) {
-        return wait.until(ExpectedConditions.elementToBeClickable(element));
+        return waitForElementToBeClickable(element, DEFAULT_WAIT_TIMEOUT);
     }
 
     /**
      * Waits for element to be clickable with custom timeout
      */
     public WebElement waitForElementToBeClickable(WebElement element, int timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return wait.until(ExpectedConditions.elementToBeClickable(element));
+        if (OBSERVER_WAITS) {
+            return ObserverWait.waitFor(driver, element, ObserverWait.Condition.CLICKABLE, Duration.ofSeconds(timeoutInSeconds));
+        }
+        return waitFor(timeoutInSeconds).until(ExpectedConditions.elementToBeClickable(element));
+    }
+
+    // The shared wait serves the default timeout; other timeouts get their own
+    private WebDriverWait waitFor(int timeoutInSeconds) {
+        return timeoutInSeconds == DEFAULT_WAIT_TIMEOUT ? wait : new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
     }
 
     /**
@@ -370,6 +387,36 @@ public class BasePage {
         }
     }
 
+    /**
+     * Batch locator lookups across frames and shadow roots, with frame elements cached for this page
+     */
+    public LocatorService locators() {
+        if (locatorService == null) {
+            locatorService = new LocatorService(driver);
+        }
+        return locatorService;
+    }
+
+    /**
+     * Reads the state of many elements in one script call per frame, for assertions without further round-trips
+     *
+     * @param locators locator chains as described in {@link LocatorService}
+     * @return snapshot per locator; null for locators that match nothing
+     */
+    public Map<String, ElementSnapshot> snapshot(String... locators) {
+        return locators().snapshotsOf(Arrays.asList(locators));
+    }
+
+    /**
+     * Reads a container such as a table or form with all elements below it in one script call
+     *
+     * @param containerLocator locator chain as described in {@link LocatorService}
+     * @return snapshot of the container with its children, or null if the locator matches nothing
+     */
+    public ElementSnapshot snapshotTree(String containerLocator) {
+        return locators().treeOf(containerLocator);
+    }
+
     /**
      * Checks if element is displayed
      */
@@ -404,17 +451,12 @@ public class BasePage {
     }
 
     /**
-     * Takes screenshot
+     * Takes screenshot; encoding and saving happen in the background
      */
-    public void takeScreenshot() {
-        try {
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            byte[] screenshot = ts.getScreenshotAs(OutputType.BYTES);
-            // Implementation for saving screenshot can be added here
-            Log.info("Screenshot taken");
-        } catch (Exception e) {
-            Log.info("Failed to take screenshot: " + e.getMessage());
-        }
+    public String takeScreenshot() {
+        String path = ScreenshotManager.captureForStep();
+        Log.info(path == null ? "Screenshot not taken" : "Screenshot taken: " + path);
+        return path;
     }
 
     /**
@@ -0,0 +1,78 @@
+package pages;
+
+import org.openqa.selenium.WebElement;
+import reporting.Log;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page Object for the local dashboard fixture under src/test/resources/fixtures: a heading, a KPI card
+ * rendered in an open shadow root and an orders table inside an iframe. It exercises {@link LocatorService}
+ * without depending on a deployed application.
+ */
+public class DashboardFixturePage extends BasePage {
+
+    // Locator chains for LocatorService
+    public static final String TITLE = "#title";
+    public static final String REVENUE_CARD = "kpi-card#revenue";
+    public static final String REVENUE = "kpi-card#revenue >>> .value";
+    public static final String ORDERS = "frame=#orders-frame >>> #orders";
+    public static final String REFRESH_BUTTON = "frame=#orders-frame >>> #refresh";
+    public static final String ORDER_STATUS = "frame=#orders-frame >>> #status";
+
+    /**
+     * Opens the fixture page from the file system
+     */
+    public void open() {
+        navigateTo(Paths.get("src", "test", "resources", "fixtures", "dashboard.html").toAbsolutePath().toUri().toString());
+        Log.info("Opened dashboard fixture");
+    }
+
+    /**
+     * Reads the title, revenue and order status with one script call per frame
+     *
+     * @return text per locator
+     */
+    public Map<String, String> readSummary() {
+        List<String> locators = Arrays.asList(TITLE, REVENUE, ORDER_STATUS);
+        return locators().textsOf(locators);
+    }
+
+    /**
+     * Clicks the refresh button inside the orders frame
+     */
+    public void refreshOrders() {
+        locators().withElements(Arrays.asList(REFRESH_BUTTON), elements -> {
+            WebElement button = elements.get(REFRESH_BUTTON);
+            if (button == null) {
+                throw new IllegalStateException("Refresh button not found: " + REFRESH_BUTTON);
+            }
+            click(button);
+        });
+        Log.info("Refreshed orders");
+    }
+
+    /**
+     * Text of the top-level heading, found as a WebElement
+     */
+    public String titleText() {
+        return getText(locators().findAll(TITLE).get(TITLE));
+    }
+
+    /**
+     * Snapshot of the revenue card with its shadow tree and slotted label
+     */
+    public ElementSnapshot revenueCard() {
+        return snapshotTree(REVENUE_CARD);
+    }
+
+    /**
+     * Snapshot of the orders table inside its frame
+     */
+    public ElementSnapshot ordersTable() {
+        return snapshotTree(ORDERS);
+    }
+}
@@ -0,0 +1,145 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of an element read in the page at one moment: tag, text, attributes, form value,
+ * visibility and, for container snapshots, its child elements. Assertions against a snapshot run in
+ * the JVM without further WebDriver calls.
+ */
+public class ElementSnapshot {
+
+    private final String tag;
+    private final String text;
+    private final String value;
+    private final Map<String, String> attributes;
+    private final boolean visible;
+    private final boolean enabled;
+    private final boolean selected;
+    private final List<ElementSnapshot> children;
+    private final boolean truncated;
+
+    private ElementSnapshot(String tag, String text, String value, Map<String, String> attributes,
+                            boolean visible, boolean enabled, boolean selected, List<ElementSnapshot> children,
+                            boolean truncated) {
+        this.tag = tag;
+        this.text = text;
+        this.value = value;
+        this.attributes = attributes;
+        this.visible = visible;
+        this.enabled = enabled;
+        this.selected = selected;
+        this.children = children;
+        this.truncated = truncated || children.stream().anyMatch(ElementSnapshot::isTruncated);
+    }
+
+    /**
+     * Builds a snapshot from the object returned by the snapshot script
+     *
+     * @param state element state as a map, or null when the locator matched nothing
+     * @return snapshot, or null for a missing element
+     */
+    @SuppressWarnings("unchecked")
+    static ElementSnapshot fromScriptResult(Object state) {
+        if (!(state instanceof Map)) {
+            return null;
+        }
+        Map<String, Object> map = (Map<String, Object>) state;
+        Map<String, String> attributes = new LinkedHashMap<>();
+        ((Map<String, Object>) map.getOrDefault("attributes", Collections.emptyMap()))
+                .forEach((name, attributeValue) -> attributes.put(name, String.valueOf(attributeValue)));
+        List<ElementSnapshot> children = new ArrayList<>();
+        for (Object child : (List<Object>) map.getOrDefault("children", Collections.emptyList())) {
+            children.add(fromScriptResult(child));
+        }
+        return new ElementSnapshot((String) map.get("tag"), (String) map.get("text"), (String) map.get("value"),
+                Collections.unmodifiableMap(attributes), Boolean.TRUE.equals(map.get("visible")),
+                Boolean.TRUE.equals(map.get("enabled")), Boolean.TRUE.equals(map.get("selected")),
+                Collections.unmodifiableList(children), Boolean.TRUE.equals(map.get("truncated")));
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * The element's {@code innerText}. For a displayed element this is its rendered text, as
+     * {@code WebElement.getText()} returns it; for a hidden element it is the text content, where
+     * {@code WebElement.getText()} returns an empty string, so check {@link #isVisible()} as well
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Current value of an input, select or textarea, or null for other elements
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Attribute as written in the markup, or null if absent
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checked state of a checkbox or radio button, or selected state of an option
+     */
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * Child elements, filled for container snapshots only
+     */
+    public List<ElementSnapshot> getChildren() {
+        return children;
+    }
+
+    /**
+     * Whether the snapshot reached its element limit and left out children of this element or of one
+     * below it. Assertions on the children of a truncated snapshot may miss elements.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Descendants with the given tag, in document order, e.g. {@code descendants("tr")} for table rows
+     */
+    public List<ElementSnapshot> descendants(String tagName) {
+        List<ElementSnapshot> matches = new ArrayList<>();
+        for (ElementSnapshot child : children) {
+            if (child.tag.equalsIgnoreCase(tagName)) {
+                matches.add(child);
+            }
+            matches.addAll(child.descendants(tagName));
+        }
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + tag + attributes + (visible ? "" : " hidden") + (enabled ? "" : " disabled")
+                + (truncated ? " truncated" : "") + ">" + text;
+    }
+}
@@ -0,0 +1,252 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import reporting.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Resolves many locators with one script call per frame instead of one WebDriver call per element.
+ * A locator is a chain of CSS selectors separated by {@code >>>}:
+ * <ul>
+ *     <li>{@code frame=<css>} segments enter an iframe, and must come first</li>
+ *     <li>other segments before the last one are shadow hosts whose open shadow root is searched next</li>
+ *     <li>the last segment selects the element</li>
+ * </ul>
+ * For example {@code frame=#dashboard >>> kpi-card#revenue >>> .value}. Frame elements are cached for
+ * the life of the page object. WebDriver elements belong to one frame, so {@link #findAll} only takes
+ * top-level locators and {@link #withElements} runs the caller's action inside each frame;
+ * {@link #textsOf}, {@link #snapshotsOf} and {@link #treeOf} read values from any frame.
+ * All lookups leave the driver in the default content.
+ */
+public class LocatorService {
+
+    private static final String SEPARATOR = ">>>";
+    private static final String FRAME_PREFIX = "frame=";
+
+    // Container snapshots stop adding elements after this many, to keep the response small
+    private static final int MAX_SNAPSHOT_ELEMENTS = 5000;
+
+    // Each path is [shadow host selectors..., element selector]; the mode selects what is returned per element
+    private static final String FIND_SCRIPT =
+            "var mode = arguments[1], budget = arguments[2];"
+            + "function visible(e) {"
+            + "  var style = getComputedStyle(e);"
+            + "  if (style.display === 'none' || style.visibility === 'hidden') return false;"
+            + "  var rect = e.getBoundingClientRect();"
+            + "  return rect.width > 0 && rect.height > 0;"
+            + "}"
+            + "function describe(e, withChildren) {"
+            + "  budget--;"
+            + "  var attributes = {};"
+            + "  for (var i = 0; i < e.attributes.length; i++) attributes[e.attributes[i].name] = e.attributes[i].value;"
+            + "  var state = {tag: e.tagName.toLowerCase(), attributes: attributes, visible: visible(e),"
+            + "    text: e.innerText !== undefined ? e.innerText : e.textContent,"
+            + "    value: 'value' in e && e.value !== undefined ? String(e.value) : null,"
+            + "    enabled: !e.matches(':disabled'), selected: !!(e.checked || e.selected)};"
+            + "  if (withChildren) {"
+            // Shadow tree first, then the light DOM children, which include elements slotted into it
+            + "    state.children = [];"
+            + "    var kids = (e.shadowRoot ? Array.from(e.shadowRoot.children) : []).concat(Array.from(e.children));"
+            + "    for (var k = 0; k < kids.length; k++) {"
+            + "      if (budget <= 0) { state.truncated = true; break; }"
+            + "      state.children.push(describe(kids[k], true));"
+            + "    }"
+            + "  }"
+            + "  return state;"
+            + "}"
+            + "return arguments[0].map(function (path) {"
+            + "  var scope = document;"
+            + "  for (var i = 0; i < path.length - 1 && scope; i++) {"
+            + "    var host = scope.querySelector(path[i]);"
+            + "    scope = host && host.shadowRoot;"
+            + "  }"
+            + "  var element = scope ? scope.querySelector(path[path.length - 1]) : null;"
+            + "  if (!element || mode === 'element') return element;"
+            + "  if (mode === 'text') return element.innerText;"
+            + "  return describe(element, mode === 'tree');"
+            + "});";
+
+    private final WebDriver driver;
+    private final Map<List<String>, WebElement> frames = new HashMap<>();
+
+    public LocatorService(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Finds the elements of locators in the top-level document
+     *
+     * @param locators locator chains without {@code frame=} segments
+     * @return element per locator, in the order given; locators that match nothing are absent
+     * @throws IllegalArgumentException for a locator inside a frame, whose element could not be used
+     *                                  once the driver is back in the default content; use {@link #withElements}
+     */
+    public Map<String, WebElement> findAll(Collection<String> locators) {
+        for (String locator : locators) {
+            if (!framePath(segments(locator)).isEmpty()) {
+                throw new IllegalArgumentException("Locator is inside a frame, use withElements to act on it there: " + locator);
+            }
+        }
+        Map<String, WebElement> elements = new LinkedHashMap<>();
+        resolve(locators, "element").forEach((locator, element) -> {
+            if (element instanceof WebElement) {
+                elements.put(locator, (WebElement) element);
+            }
+        });
+        return elements;
+    }
+
+    /**
+     * Convenience overload of {@link #findAll(Collection)}
+     */
+    public Map<String, WebElement> findAll(String... locators) {
+        return findAll(Arrays.asList(locators));
+    }
+
+    /**
+     * Finds the elements of locators in any frame and hands them to an action while the driver is still
+     * switched into their frame. The action runs once per frame, with that frame's elements.
+     *
+     * @param locators locator chains
+     * @param action   receives element per locator of one frame; locators that match nothing are absent
+     */
+    public void withElements(Collection<String> locators, Consumer<Map<String, WebElement>> action) {
+        forEachFrame(locators, "element", found -> {
+            Map<String, WebElement> elements = new LinkedHashMap<>();
+            found.forEach((locator, element) -> {
+                if (element instanceof WebElement) {
+                    elements.put(locator, (WebElement) element);
+                }
+            });
+            action.accept(elements);
+        });
+    }
+
+    /**
+     * Reads the {@code innerText} of all locators. Unlike {@code WebElement.getText()}, hidden elements
+     * return their text content rather than an empty string
+     *
+     * @param locators locator chains
+     * @return text per locator, in the order given; null for locators that match nothing
+     */
+    public Map<String, String> textsOf(Collection<String> locators) {
+        Map<String, String> texts = new LinkedHashMap<>();
+        resolve(locators, "text").forEach((locator, text) -> texts.put(locator, (String) text));
+        return texts;
+    }
+
+    /**
+     * Reads text, form value, attributes and visibility of all locators
+     *
+     * @param locators locator chains
+     * @return snapshot per locator, in the order given; null for locators that match nothing
+     */
+    public Map<String, ElementSnapshot> snapshotsOf(Collection<String> locators) {
+        Map<String, ElementSnapshot> snapshots = new LinkedHashMap<>();
+        resolve(locators, "state").forEach((locator, state) -> snapshots.put(locator, ElementSnapshot.fromScriptResult(state)));
+        return snapshots;
+    }
+
+    /**
+     * Reads a container and every element below it, including open shadow roots and the light DOM
+     * children of shadow hosts, up to {@value #MAX_SNAPSHOT_ELEMENTS} elements
+     *
+     * @param locator locator chain of the container
+     * @return snapshot of the container with its children, or null if the locator matches nothing;
+     * {@link ElementSnapshot#isTruncated()} tells whether the limit left elements out
+     */
+    public ElementSnapshot treeOf(String locator) {
+        return ElementSnapshot.fromScriptResult(resolve(Collections.singletonList(locator), "tree").get(locator));
+    }
+
+    private Map<String, Object> resolve(Collection<String> locators, String mode) {
+        Map<String, Object> results = new HashMap<>();
+        forEachFrame(locators, mode, results::putAll);
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        for (String locator : locators) {
+            ordered.put(locator, results.get(locator));
+        }
+        return ordered;
+    }
+
+    /**
+     * Runs the lookup script once per frame and hands each frame's results to the callback while the
+     * driver is switched into that frame, then returns to the default content
+     */
+    private void forEachFrame(Collection<String> locators, String mode, Consumer<Map<String, Object>> inFrame) {
+        // One script call per frame, in the order frames are first used
+        Map<List<String>, Map<String, List<String>>> byFrame = new LinkedHashMap<>();
+        for (String locator : locators) {
+            List<String> segments = segments(locator);
+            List<String> framePath = framePath(segments);
+            byFrame.computeIfAbsent(framePath, path -> new LinkedHashMap<>())
+                    .put(locator, segments.subList(framePath.size(), segments.size()));
+        }
+        try {
+            for (Map.Entry<List<String>, Map<String, List<String>>> frame : byFrame.entrySet()) {
+                switchToFrame(frame.getKey());
+                List<?> found = (List<?>) ((JavascriptExecutor) driver).executeScript(FIND_SCRIPT,
+                        new ArrayList<>(frame.getValue().values()), mode, MAX_SNAPSHOT_ELEMENTS);
+                Map<String, Object> frameResults = new LinkedHashMap<>();
+                int index = 0;
+                for (String locator : frame.getValue().keySet()) {
+                    frameResults.put(locator, found.get(index++));
+                }
+                inFrame.accept(frameResults);
+            }
+        } finally {
+            driver.switchTo().defaultContent();
+        }
+        Log.info("Resolved " + locators.size() + " locator(s) in " + byFrame.size() + " script call(s)");
+    }
+
+    private static List<String> segments(String locator) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : locator.split(SEPARATOR)) {
+            segments.add(segment.trim());
+        }
+        return segments;
+    }
+
+    // Leading frame= segments, without the prefix; the last segment always selects the element
+    private static List<String> framePath(List<String> segments) {
+        List<String> framePath = new ArrayList<>();
+        for (int i = 0; i < segments.size() - 1 && segments.get(i).startsWith(FRAME_PREFIX); i++) {
+            framePath.add(segments.get(i).substring(FRAME_PREFIX.length()).trim());
+        }
+        return framePath;
+    }
+
+    private void switchToFrame(List<String> framePath) {
+        driver.switchTo().defaultContent();
+        for (int depth = 1; depth <= framePath.size(); depth++) {
+            List<String> path = framePath.subList(0, depth);
+            try {
+                driver.switchTo().frame(frameElement(path));
+            } catch (StaleElementReferenceException | NoSuchFrameException e) {
+                // The frame was reloaded or replaced since it was cached
+                frames.remove(path);
+                driver.switchTo().frame(frameElement(path));
+            }
+        }
+    }
+
+    private WebElement frameElement(List<String> path) {
+        return frames.computeIfAbsent(new ArrayList<>(path),
+                key -> driver.findElement(By.cssSelector(key.get(key.size() - 1))));
+    }
+}
@@ -0,0 +1,130 @@
+package pages;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import reporting.Log;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Waits for an element state inside the page instead of polling it over WebDriver.
+ * A single async script checks the element on every DOM mutation, transition and animation end,
+ * and answers as soon as the condition holds, so a wait costs one round-trip however long it lasts.
+ * Opt-in with elementWaitStrategy=observer. The in-page visibility check approximates
+ * {@code WebElement.isDisplayed()} from computed style and size: an element clipped by an overflowing
+ * ancestor counts as visible, while {@code display: contents} elements and zero-size elements with
+ * visible children count as hidden.
+ */
+public class ObserverWait {
+
+    public enum Condition { VISIBLE, CLICKABLE }
+
+    // Stays under WebDriver's default 30 s script timeout; longer waits are split into several calls
+    private static final long MAX_SCRIPT_MILLIS = 20_000;
+
+    private static final String WAIT_SCRIPT =
+            "var element = arguments[0], clickable = arguments[1] === 'CLICKABLE', timeout = arguments[2];"
+            + "var done = arguments[arguments.length - 1], finished = false, timer, safetyNet;"
+            + "function visible(e) {"
+            + "  if (e.checkVisibility && !e.checkVisibility({checkOpacity: true, checkVisibilityCSS: true})) return false;"
+            + "  var style = getComputedStyle(e);"
+            + "  if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') return false;"
+            + "  var rect = e.getBoundingClientRect();"
+            + "  return rect.width > 0 && rect.height > 0;"
+            + "}"
+            + "function state() {"
+            + "  if (!element.isConnected) return 'stale';"
+            + "  if (!visible(element)) return null;"
+            + "  return clickable && element.matches(':disabled') ? null : 'ok';"
+            + "}"
+            + "var observer = new MutationObserver(check);"
+            + "function finish(result) {"
+            + "  if (finished) return;"
+            + "  finished = true;"
+            + "  observer.disconnect();"
+            + "  clearTimeout(timer);"
+            + "  clearInterval(safetyNet);"
+            + "  document.removeEventListener('transitionend', check, true);"
+            + "  document.removeEventListener('animationend', check, true);"
+            + "  done(result);"
+            + "}"
+            + "function check() { var result = state(); if (result) finish(result); }"
+            + "var initial = state();"
+            + "if (initial) { done(initial); return; }"
+            + "observer.observe(document, {attributes: true, childList: true, subtree: true, characterData: true});"
+            + "document.addEventListener('transitionend', check, true);"
+            + "document.addEventListener('animationend', check, true);"
+            // Catches changes no event reports, such as a media query starting to match
+            + "safetyNet = setInterval(check, 250);"
+            + "timer = setTimeout(function () { finish('timeout'); }, timeout);";
+
+    private static final Map<WebDriver, Boolean> unsupported = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ObserverWait() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Waits until the element meets the condition. When the page cannot answer, for example because it
+     * navigates away during the wait, the rest of the timeout is spent polling with a WebDriverWait;
+     * drivers that reject async scripts poll from the start on every later wait.
+     *
+     * @param driver    driver the element belongs to
+     * @param element   element, or a page factory proxy that is located again if it goes stale
+     * @param condition state to wait for
+     * @param timeout   how long to wait in total
+     * @return the element
+     * @throws TimeoutException if the condition is not met in time
+     */
+    public static WebElement waitFor(WebDriver driver, WebElement element, Condition condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (!(driver instanceof JavascriptExecutor) || unsupported.containsKey(driver)) {
+            return poll(driver, element, condition, deadline);
+        }
+        RuntimeException lastError = null;
+        long remaining;
+        while ((remaining = (deadline - System.nanoTime()) / 1_000_000) > 0) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT, element, condition.name(),
+                        Math.min(remaining, MAX_SCRIPT_MILLIS));
+                if ("ok".equals(result)) {
+                    return element;
+                }
+                // "stale" and "timeout" try again: a proxy element is located afresh on the next call,
+                // while a detached plain element fails the next call with StaleElementReferenceException
+            } catch (NotFoundException e) {
+                // The implicit wait has already been spent looking for the element
+                lastError = e;
+            } catch (UnsupportedCommandException e) {
+                Log.info("Observer waits not supported by this driver, polling instead");
+                unsupported.put(driver, Boolean.TRUE);
+                return poll(driver, element, condition, deadline);
+            } catch (JavascriptException | ScriptTimeoutException e) {
+                // Includes the page unloading while the script waits; only this wait falls back
+                Log.info("Observer wait interrupted (" + e.getClass().getSimpleName() + "), polling for the rest of the wait");
+                return poll(driver, element, condition, deadline);
+            }
+        }
+        throw new TimeoutException("Expected condition failed: waiting for element to be " + condition.name().toLowerCase()
+                + " (tried for " + timeout.getSeconds() + " second(s) with a page observer)", lastError);
+    }
+
+    // Classic WebDriverWait polling, limited to the time left before the deadline
+    private static WebElement poll(WebDriver driver, WebElement element, Condition condition, long deadline) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        return wait.until(condition == Condition.VISIBLE
+                ? ExpectedConditions.visibilityOf(element)
+                : ExpectedConditions.elementToBeClickable(element));
+    }
+}
@@ -0,0 +1,233 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates page objects lazily once per scenario and keeps the reflective work out of the hot path.
+ * The element fields of each page class and their locators are resolved once per JVM, and the
+ * wait, actions and JS helpers are shared by all pages of the same driver.
+ */
+public class PageRegistry {
+
+    private static final Map<Class<?>, List<PageField>> pageFields = new ConcurrentHashMap<>();
+    // One driver per thread, so the thread's helpers are replaced, and the old driver released, when its driver changes
+    private static final ThreadLocal<DriverHelpers> helpers = new ThreadLocal<>();
+    private static final ThreadLocal<Map<Class<?>, BasePage>> scenarioPages = ThreadLocal.withInitial(HashMap::new);
+    private static final ProxyFactory proxyFactory = new ProxyFactory();
+
+    private PageRegistry() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Gets the scenario's instance of a page, creating it on first use
+     *
+     * @param pageClass page object class with a no-argument constructor
+     * @return page object shared by all steps of the current scenario
+     */
+    public static <T extends BasePage> T get(Class<T> pageClass) {
+        Map<Class<?>, BasePage> pages = scenarioPages.get();
+        BasePage page = pages.get(pageClass);
+        if (page == null) {
+            try {
+                page = pageClass.getDeclaredConstructor().newInstance();
+            } catch (InvocationTargetException e) {
+                // Surface driver start-up failures from the page constructor unchanged
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Cannot create page object " + pageClass.getName(), e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create page object " + pageClass.getName(), e);
+            }
+            pages.put(pageClass, page);
+        }
+        return pageClass.cast(page);
+    }
+
+    /**
+     * Drops the current scenario's page objects; called when a scenario ends
+     */
+    public static void clearScenarioPages() {
+        scenarioPages.get().clear();
+    }
+
+    /**
+     * Gets the wait, actions and JS helpers shared by all pages of a driver
+     */
+    static DriverHelpers helpersFor(WebDriver driver, int waitTimeoutSeconds) {
+        DriverHelpers current = helpers.get();
+        if (current == null || current.driver != driver) {
+            current = new DriverHelpers(driver, waitTimeoutSeconds);
+            helpers.set(current);
+        }
+        return current;
+    }
+
+    /**
+     * Replacement for PageFactory.initElements that reuses the cached field metadata of the page class
+     */
+    static void initElements(SearchContext searchContext, Object page) {
+        ClassLoader loader = page.getClass().getClassLoader();
+        for (PageField pageField : pageFields.computeIfAbsent(page.getClass(), PageRegistry::findPageFields)) {
+            ElementLocator locator = new CachedByLocator(searchContext, pageField.by, pageField.cacheLookup);
+            Object proxy = pageField.list
+                    ? proxyFactory.listProxy(loader, locator)
+                    : proxyFactory.elementProxy(loader, locator);
+            try {
+                pageField.field.set(page, proxy);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot initialize field " + pageField.field, e);
+            }
+        }
+    }
+
+    /**
+     * Finds the fields PageFactory would decorate: every WebElement, and every List of WebElement with a locator annotation
+     */
+    private static List<PageField> findPageFields(Class<?> pageClass) {
+        List<PageField> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                boolean element = WebElement.class.equals(field.getType());
+                boolean list = isElementList(field);
+                if (element || list) {
+                    field.setAccessible(true);
+                    Annotations annotations = new Annotations(field);
+                    fields.add(new PageField(field, annotations.buildBy(), annotations.isLookupCached(), list));
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static boolean isElementList(Field field) {
+        if (!List.class.equals(field.getType())) {
+            return false;
+        }
+        Type genericType = field.getGenericType();
+        if (!(genericType instanceof ParameterizedType)
+                || !WebElement.class.equals(((ParameterizedType) genericType).getActualTypeArguments()[0])) {
+            return false;
+        }
+        return field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                || field.isAnnotationPresent(FindAll.class);
+    }
+
+    private static class PageField {
+        private final Field field;
+        private final By by;
+        private final boolean cacheLookup;
+        private final boolean list;
+
+        private PageField(Field field, By by, boolean cacheLookup, boolean list) {
+            this.field = field;
+            this.by = by;
+            this.cacheLookup = cacheLookup;
+            this.list = list;
+        }
+    }
+
+    /**
+     * Wait, actions and JS helpers for one driver
+     */
+    static class DriverHelpers {
+        private final WebDriver driver;
+        final WebDriverWait wait;
+        final Actions actions;
+        final JavascriptExecutor js;
+
+        private DriverHelpers(WebDriver driver, int waitTimeoutSeconds) {
+            this.driver = driver;
+            wait = new WebDriverWait(driver, Duration.ofSeconds(waitTimeoutSeconds));
+            actions = new Actions(driver);
+            js = (JavascriptExecutor) driver;
+        }
+    }
+
+    /**
+     * Element locator with a pre-built By, equivalent to PageFactory's DefaultElementLocator
+     */
+    private static class CachedByLocator implements ElementLocator {
+        private final SearchContext searchContext;
+        private final By by;
+        private final boolean cacheLookup;
+        private WebElement cachedElement;
+        private List<WebElement> cachedElements;
+
+        private CachedByLocator(SearchContext searchContext, By by, boolean cacheLookup) {
+            this.searchContext = searchContext;
+            this.by = by;
+            this.cacheLookup = cacheLookup;
+        }
+
+        @Override
+        public WebElement findElement() {
+            if (cachedElement != null) {
+                return cachedElement;
+            }
+            WebElement element = searchContext.findElement(by);
+            if (cacheLookup) {
+                cachedElement = element;
+            }
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            if (cachedElements != null) {
+                return cachedElements;
+            }
+            List<WebElement> elements = searchContext.findElements(by);
+            if (cacheLookup) {
+                cachedElements = elements;
+            }
+            return elements;
+        }
+
+        @Override
+        public String toString() {
+            return "Located by " + by;
+        }
+    }
+
+    /**
+     * Exposes PageFactory's proxy creation without its per-field annotation processing
+     */
+    private static class ProxyFactory extends DefaultFieldDecorator {
+        private ProxyFactory() {
+            super(null);
+        }
+
+        private WebElement elementProxy(ClassLoader loader, ElementLocator locator) {
+            return proxyForLocator(loader, locator);
+        }
+
+        private List<WebElement> listProxy(ClassLoader loader, ElementLocator locator) {
+            return proxyForListLocator(loader, locator);
+        }
+    }
+}
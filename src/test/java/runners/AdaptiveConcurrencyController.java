@@ -0,0 +1,166 @@
+package runners;
+
+import com.sun.management.OperatingSystemMXBean;
+import reporting.Log;
+import reporting.StepLatency;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the number of browser slots of a {@link ResourceScheduler} while the run is in progress.
+ * Every sample period it reads host CPU load and free memory and the average browser step time, then applies
+ * AIMD: when the host is overloaded or browser steps take twice their baseline time, the slot count is cut
+ * by a quarter; otherwise, if every slot is busy and browser scenarios are waiting, one slot is added.
+ * The baseline is a moving average of the step time that follows it slowly, so a short spike is caught
+ * while a lasting change, such as the run moving on to slower scenarios, becomes the new normal.
+ * Surplus browser sessions are closed by the scheduler as their threads become idle.
+ */
+public class AdaptiveConcurrencyController {
+
+    private static final Path TIMELINE_FILE = Paths.get("target", "concurrency", "timeline.csv");
+    private static final double MAX_CPU_LOAD = 0.85;
+    private static final double MIN_FREE_MEMORY = 0.10;
+    private static final double MAX_LATENCY_FACTOR = 2.0;
+    private static final double DECREASE_FACTOR = 0.75;
+    // Weight of each new sample in the baseline step time
+    private static final double BASELINE_WEIGHT = 0.1;
+
+    private final ResourceScheduler scheduler;
+    private final int minSlots;
+    private final int maxSlots;
+    private final long sampleMillis;
+    private final OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final List<Sample> timeline = new ArrayList<>();
+    private ScheduledExecutorService sampler;
+    private double baselineLatencyMillis = -1;
+    private long startNanos;
+
+    public AdaptiveConcurrencyController(ResourceScheduler scheduler, int minSlots, int maxSlots, long sampleMillis) {
+        this.scheduler = scheduler;
+        this.minSlots = Math.max(1, minSlots);
+        this.maxSlots = Math.max(this.minSlots, maxSlots);
+        this.sampleMillis = sampleMillis;
+    }
+
+    /**
+     * Starts sampling on a background thread
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        StepLatency.drainAverageMillis();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sample, sampleMillis, sampleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        try {
+            double cpuLoad = os.getCpuLoad();
+            double freeMemory = os.getFreeMemorySize() / (double) os.getTotalMemorySize();
+            double latency = StepLatency.drainAverageMillis();
+            double baseline = baselineLatencyMillis;
+            if (latency > 0) {
+                baselineLatencyMillis = baseline < 0 ? latency : baseline + BASELINE_WEIGHT * (latency - baseline);
+            }
+            ResourceScheduler.ResourceClass browser = ResourceScheduler.ResourceClass.BROWSER;
+            int slots = scheduler.getSlots(browser);
+            String decision;
+            if (cpuLoad > MAX_CPU_LOAD || freeMemory < MIN_FREE_MEMORY
+                    || (latency > 0 && baseline > 0 && latency > baseline * MAX_LATENCY_FACTOR)) {
+                slots = Math.max(minSlots, (int) (slots * DECREASE_FACTOR));
+                decision = "decrease";
+            } else if (scheduler.getRunning(browser) >= slots && scheduler.getPending(browser) > 0) {
+                slots = Math.min(maxSlots, slots + 1);
+                decision = "increase";
+            } else {
+                decision = "hold";
+            }
+            scheduler.setSlots(browser, slots);
+            synchronized (timeline) {
+                timeline.add(new Sample((System.nanoTime() - startNanos) / 1_000_000, cpuLoad, freeMemory, latency,
+                        baselineLatencyMillis, slots, scheduler.getRunning(browser), decision));
+            }
+        } catch (RuntimeException e) {
+            // A failed sample must not stop later ones
+            Log.info("Concurrency sample failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops sampling, writes target/concurrency/timeline.csv and returns the slot timeline
+     */
+    public String stop() {
+        sampler.shutdownNow();
+        List<Sample> samples;
+        synchronized (timeline) {
+            samples = new ArrayList<>(timeline);
+        }
+        writeTimeline(samples);
+        StringBuilder summary = new StringBuilder("Browser concurrency timeline (s=slots):");
+        int previous = -1;
+        for (Sample sample : samples) {
+            if (sample.slots != previous) {
+                summary.append(String.format(" %.0fs=%d", sample.elapsedMillis / 1000.0, sample.slots));
+                previous = sample.slots;
+            }
+        }
+        if (samples.isEmpty()) {
+            summary.append(" no samples, run finished within ").append(sampleMillis).append(" ms");
+        }
+        return summary.toString();
+    }
+
+    private static void writeTimeline(List<Sample> samples) {
+        try {
+            Files.createDirectories(TIMELINE_FILE.getParent());
+            try (BufferedWriter csv = Files.newBufferedWriter(TIMELINE_FILE, StandardCharsets.UTF_8)) {
+                csv.write("elapsed_ms,cpu_load,free_memory,avg_step_ms,baseline_step_ms,browser_slots,browser_running,decision");
+                csv.newLine();
+                for (Sample sample : samples) {
+                    csv.write(String.format("%d,%.3f,%.3f,%.1f,%.1f,%d,%d,%s", sample.elapsedMillis, sample.cpuLoad,
+                            sample.freeMemory, sample.latencyMillis, sample.baselineMillis, sample.slots, sample.running, sample.decision));
+                    csv.newLine();
+                }
+            }
+        } catch (IOException e) {
+            Log.info("Failed to write concurrency timeline: " + e.getMessage());
+        }
+    }
+
+    private static class Sample {
+        private final long elapsedMillis;
+        private final double cpuLoad;
+        private final double freeMemory;
+        private final double latencyMillis;
+        private final double baselineMillis;
+        private final int slots;
+        private final int running;
+        private final String decision;
+
+        private Sample(long elapsedMillis, double cpuLoad, double freeMemory, double latencyMillis, double baselineMillis,
+                       int slots, int running, String decision) {
+            this.elapsedMillis = elapsedMillis;
+            this.cpuLoad = cpuLoad;
+            this.freeMemory = freeMemory;
+            this.latencyMillis = latencyMillis;
+            this.baselineMillis = baselineMillis;
+            this.slots = slots;
+            this.running = running;
+            this.decision = decision;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package runners;
+
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import reporting.Log;
+import utilities.ConfigReader;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * TestRunner for large feature trees that selects feature files from a cached {@link FeatureIndex}.
+ * Only files with scenarios matching cucumber.filter.tags are handed to Cucumber, so it does not
+ * parse files that would contribute nothing. The run summary logs where startup time went.
+ * Run with -Pfast-start, or -Dtest=FastStartRunner; -Dcucumber.features still selects features explicitly.
+ */
+public class FastStartRunner extends TestRunner {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final String DEFAULT_FEATURE_ROOT = "src/test/resources/features";
+
+    private FeatureIndex featureIndex;
+    private int selectedFeatures;
+    private long firstScenarioMillis = -1;
+
+    @BeforeSuite(alwaysRun = true)
+    public void selectFeatures() {
+        if (System.getProperty("cucumber.features") != null) {
+            return;
+        }
+        String featureRoot = System.getProperty("featureRoot", configReader.getProperty("featureRoot"));
+        if (featureRoot == null) {
+            featureRoot = DEFAULT_FEATURE_ROOT;
+        }
+        featureIndex = FeatureIndex.build(Paths.get(featureRoot));
+        List<String> features = featureIndex.featuresMatching(System.getProperty("cucumber.filter.tags"));
+        selectedFeatures = features.size();
+        // Read by Cucumber when AbstractTestNGCucumberTests creates its runner in setUpClass
+        System.setProperty("cucumber.features", features.isEmpty() ? featureRoot : String.join(",", features));
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void recordFirstScenario() {
+        if (firstScenarioMillis < 0) {
+            firstScenarioMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void logStartupSummary() {
+        StringBuilder summary = new StringBuilder(firstScenarioMillis < 0
+                ? "Startup: no scenario was run"
+                : "Startup: first scenario started " + firstScenarioMillis + " ms after JVM start");
+        if (featureIndex != null) {
+            summary.append(String.format("; feature index %d ms (%d files, %d parsed, %d cached, %d scenarios), %d feature files selected",
+                    featureIndex.getBuildMillis(), featureIndex.getFileCount(), featureIndex.getParsedFiles(),
+                    featureIndex.getFileCount() - featureIndex.getParsedFiles(), featureIndex.getScenarioCount(), selectedFeatures));
+        }
+        Log.info(summary.toString());
+    }
+}
@@ -0,0 +1,218 @@
+package runners;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleTag;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import reporting.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tags of every scenario in a feature tree, cached in target/feature-index/index.json by file hash.
+ * Only files whose content changed since the last run are parsed, in parallel, so selecting the
+ * feature files that match a tag expression costs little more than hashing the tree.
+ */
+public class FeatureIndex {
+
+    private static final Path INDEX_FILE = Paths.get("target", "feature-index", "index.json");
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, FeatureEntry> entries;
+    private final int parsedFiles;
+    private final long buildMillis;
+
+    private FeatureIndex(Map<String, FeatureEntry> entries, int parsedFiles, long buildMillis) {
+        this.entries = entries;
+        this.parsedFiles = parsedFiles;
+        this.buildMillis = buildMillis;
+    }
+
+    /**
+     * Indexes every .feature file under a directory, reusing cached entries for unchanged files
+     *
+     * @param featureRoot root of the feature tree
+     */
+    public static FeatureIndex build(Path featureRoot) {
+        return build(featureRoot, INDEX_FILE);
+    }
+
+    /**
+     * Indexes every .feature file under a directory, reusing entries cached in the given index file
+     *
+     * @param featureRoot root of the feature tree
+     * @param indexFile   file the entries are cached in, rewritten when any file was parsed
+     */
+    public static FeatureIndex build(Path featureRoot, Path indexFile) {
+        long start = System.nanoTime();
+        Map<String, FeatureEntry> cached = readCache(indexFile);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(featureRoot)) {
+            files = paths.filter(path -> path.toString().endsWith(".feature")).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list feature files under " + featureRoot, e);
+        }
+        AtomicInteger parsed = new AtomicInteger();
+        Map<String, FeatureEntry> entries = new ConcurrentHashMap<>();
+        files.parallelStream().forEach(file -> {
+            String key = file.toString().replace('\\', '/');
+            byte[] content = read(file);
+            String hash = sha256(content);
+            FeatureEntry entry = cached.get(key);
+            if (entry == null || !hash.equals(entry.getHash())) {
+                entry = parse(key, content, hash);
+                parsed.incrementAndGet();
+            }
+            entries.put(key, entry);
+        });
+        Map<String, FeatureEntry> sorted = new TreeMap<>(entries);
+        if (parsed.get() > 0 || sorted.size() != cached.size()) {
+            writeCache(indexFile, sorted);
+        }
+        return new FeatureIndex(sorted, parsed.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static FeatureEntry parse(String uri, byte[] content, String hash) {
+        FeatureEntry entry = new FeatureEntry();
+        entry.setHash(hash);
+        GherkinParser parser = GherkinParser.builder()
+                .includeSource(false)
+                .includeGherkinDocument(false)
+                .build();
+        parser.parse(uri, content).forEach((Envelope envelope) -> {
+            envelope.getPickle().map(Pickle::getTags).ifPresent(tags ->
+                    entry.getScenarioTags().add(tags.stream().map(PickleTag::getName).collect(Collectors.toList())));
+            // Files that do not parse stay selected so Cucumber reports the error
+            envelope.getParseError().ifPresent(error -> entry.setParseError(true));
+        });
+        return entry;
+    }
+
+    /**
+     * Feature files with at least one scenario matching a tag expression
+     *
+     * @param tagExpression Cucumber tag expression, or null/blank to select every file with scenarios
+     */
+    public List<String> featuresMatching(String tagExpression) {
+        Expression expression = tagExpression == null || tagExpression.isBlank() ? null : TagExpressionParser.parse(tagExpression);
+        List<String> features = new ArrayList<>();
+        entries.forEach((uri, entry) -> {
+            boolean matches = entry.isParseError() || entry.getScenarioTags().stream()
+                    .anyMatch(tags -> expression == null || expression.evaluate(tags));
+            if (matches) {
+                features.add(uri);
+            }
+        });
+        return features;
+    }
+
+    public int getFileCount() {
+        return entries.size();
+    }
+
+    public int getParsedFiles() {
+        return parsedFiles;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public int getScenarioCount() {
+        return entries.values().stream().mapToInt(entry -> entry.getScenarioTags().size()).sum();
+    }
+
+    private static Map<String, FeatureEntry> readCache(Path indexFile) {
+        if (!Files.exists(indexFile)) {
+            return Collections.emptyMap();
+        }
+        try {
+            return mapper.readValue(indexFile.toFile(), new TypeReference<Map<String, FeatureEntry>>() { });
+        } catch (IOException e) {
+            Log.info("Ignoring unreadable feature index " + indexFile + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static void writeCache(Path indexFile, Map<String, FeatureEntry> entries) {
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            mapper.writeValue(indexFile.toFile(), entries);
+        } catch (IOException e) {
+            Log.info("Failed to write feature index " + indexFile + ": " + e.getMessage());
+        }
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read feature file " + file, e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Cached index entry of one feature file
+     */
+    public static class FeatureEntry {
+        private String hash;
+        private boolean parseError;
+        private List<List<String>> scenarioTags = new ArrayList<>();
+
+        public String getHash() {
+            return hash;
+        }
+
+        public void setHash(String hash) {
+            this.hash = hash;
+        }
+
+        public boolean isParseError() {
+            return parseError;
+        }
+
+        public void setParseError(boolean parseError) {
+            this.parseError = parseError;
+        }
+
+        public List<List<String>> getScenarioTags() {
+            return scenarioTags;
+        }
+
+        public void setScenarioTags(List<List<String>> scenarioTags) {
+            this.scenarioTags = scenarioTags;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package runners;
+
+import drivers.DriverManager;
+import org.testng.SkipException;
+import utilities.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scenarios with a concurrency limit per resource class, chosen from their tags.
+ * <ul>
+ *     <li>{@code @api}: no browser needed, runs on virtual threads within the API limit</li>
+ *     <li>{@code @browser}, or no class tag: needs a browser slot</li>
+ *     <li>{@code @exclusive:<resource>}: never runs at the same time as another scenario holding that resource</li>
+ *     <li>{@code @exclusive}: runs alone, after all other scenarios</li>
+ * </ul>
+ * A scenario is started only when its class has a free slot and its resources are free, so a scenario
+ * waiting for a resource never holds a slot and a free browser slot is filled by the next browser
+ * scenario that can run, whatever the API queue looks like. Slot counts can be changed during the run;
+ * when browser slots shrink, browser threads close their driver as they become idle until the number of
+ * open sessions fits the new limit.
+ */
+public class ResourceScheduler {
+
+    public enum ResourceClass { BROWSER, API }
+
+    private static final String EXCLUSIVE_TAG = "@exclusive";
+    private static final String EXCLUSIVE_RESOURCE_PREFIX = "@exclusive:";
+
+    private final Object lock = new Object();
+    private final Map<ResourceClass, LinkedList<Job>> pending = new EnumMap<>(ResourceClass.class);
+    private final Map<ResourceClass, ClassStats> stats = new EnumMap<>(ResourceClass.class);
+    private final LinkedList<Job> exclusiveJobs = new LinkedList<>();
+    private final Set<String> busyResources = new HashSet<>();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final ThreadLocal<Boolean> browserSessionOpen = ThreadLocal.withInitial(() -> false);
+    private final ExecutorService browserExecutor;
+    private final ExecutorService apiExecutor;
+    private int running;
+    private int browserSessions;
+    private boolean exclusiveRunning;
+    private boolean started;
+    private long startNanos;
+    private long endNanos;
+
+    /**
+     * @param browserSlots scenarios that may hold a browser at once
+     * @param apiSlots     API scenarios that may run at once
+     */
+    public ResourceScheduler(int browserSlots, int apiSlots) {
+        this(browserSlots, browserSlots, apiSlots);
+    }
+
+    /**
+     * @param browserSlots    scenarios that may hold a browser at once when the run starts
+     * @param maxBrowserSlots highest browser slot count {@link #setSlots} may set
+     * @param apiSlots        API scenarios that may run at once
+     */
+    public ResourceScheduler(int browserSlots, int maxBrowserSlots, int apiSlots) {
+        stats.put(ResourceClass.BROWSER, new ClassStats(browserSlots));
+        stats.put(ResourceClass.API, new ClassStats(apiSlots));
+        for (ResourceClass resourceClass : ResourceClass.values()) {
+            pending.put(resourceClass, new LinkedList<>());
+        }
+        // Browser threads are reused so each keeps its thread-bound driver between scenarios
+        AtomicInteger threadCount = new AtomicInteger();
+        browserExecutor = Executors.newFixedThreadPool(Math.max(browserSlots, maxBrowserSlots), runnable -> {
+            Thread thread = new Thread(runnable, "browser-scenario-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        apiExecutor = VirtualThreads.newThreadPerTaskExecutor("api-scenario");
+    }
+
+    /**
+     * Queues a scenario; queued scenarios start in submission order as their slots and resources allow
+     *
+     * @param name     scenario name used in failure messages
+     * @param tags     scenario tags, including those inherited from the feature
+     * @param scenario runs the scenario and throws if it fails
+     */
+    public void submit(String name, List<String> tags, Runnable scenario) {
+        Set<String> resources = new TreeSet<>();
+        for (String tag : tags) {
+            if (tag.startsWith(EXCLUSIVE_RESOURCE_PREFIX)) {
+                resources.add(tag.substring(EXCLUSIVE_RESOURCE_PREFIX.length()));
+            }
+        }
+        ResourceClass resourceClass = tags.contains("@api") && !tags.contains("@browser") ? ResourceClass.API : ResourceClass.BROWSER;
+        Job job = new Job(name, resourceClass, resources, scenario);
+        synchronized (lock) {
+            if (tags.contains(EXCLUSIVE_TAG)) {
+                exclusiveJobs.add(job);
+            } else {
+                pending.get(resourceClass).add(job);
+            }
+            if (started) {
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Starts running the queued scenarios
+     */
+    public void start() {
+        synchronized (lock) {
+            started = true;
+            startNanos = System.nanoTime();
+            dispatch();
+        }
+    }
+
+    // Called with the lock held
+    private void dispatch() {
+        if (exclusiveRunning) {
+            return;
+        }
+        for (ResourceClass resourceClass : ResourceClass.values()) {
+            ClassStats classStats = stats.get(resourceClass);
+            Iterator<Job> jobs = pending.get(resourceClass).iterator();
+            while (classStats.running < classStats.slots && jobs.hasNext()) {
+                Job job = jobs.next();
+                if (Collections.disjoint(job.resources, busyResources)) {
+                    jobs.remove();
+                    launch(job);
+                }
+            }
+        }
+        boolean othersDone = running == 0 && pending.values().stream().allMatch(List::isEmpty);
+        if (othersDone && !exclusiveJobs.isEmpty()) {
+            exclusiveRunning = true;
+            launch(exclusiveJobs.removeFirst());
+        }
+        if (othersDone && exclusiveJobs.isEmpty() && !exclusiveRunning) {
+            endNanos = System.nanoTime();
+            lock.notifyAll();
+        }
+    }
+
+    private void launch(Job job) {
+        running++;
+        busyResources.addAll(job.resources);
+        ClassStats classStats = stats.get(job.resourceClass);
+        classStats.running++;
+        classStats.peak = Math.max(classStats.peak, classStats.running);
+        classStats.scenarios++;
+        ExecutorService executor = job.resourceClass == ResourceClass.API ? apiExecutor : browserExecutor;
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                job.scenario.run();
+            } catch (SkipException e) {
+                skipped.incrementAndGet();
+            } catch (Throwable e) {
+                failures.add(job.name + ": " + e);
+            } finally {
+                if (job.resourceClass == ResourceClass.BROWSER) {
+                    trackBrowserSession();
+                }
+                finish(job, System.nanoTime() - start);
+            }
+        });
+    }
+
+    // Runs on the browser thread that just finished a scenario
+    private void trackBrowserSession() {
+        synchronized (lock) {
+            if (!DriverManager.hasDriver()) {
+                // The scenario's driver was recycled at scenario end
+                if (browserSessionOpen.get()) {
+                    browserSessionOpen.set(false);
+                    browserSessions--;
+                }
+                return;
+            }
+            if (!browserSessionOpen.get()) {
+                browserSessionOpen.set(true);
+                browserSessions++;
+            }
+            if (browserSessions > stats.get(ResourceClass.BROWSER).slots) {
+                DriverManager.quitDriver();
+                browserSessionOpen.set(false);
+                browserSessions--;
+            }
+        }
+    }
+
+    private void finish(Job job, long nanos) {
+        synchronized (lock) {
+            running--;
+            busyResources.removeAll(job.resources);
+            ClassStats classStats = stats.get(job.resourceClass);
+            classStats.running--;
+            classStats.busyNanos += nanos;
+            exclusiveRunning = false;
+            dispatch();
+        }
+    }
+
+    /**
+     * Changes how many scenarios of a class may run at once; running scenarios are not interrupted
+     */
+    public void setSlots(ResourceClass resourceClass, int slots) {
+        synchronized (lock) {
+            stats.get(resourceClass).slots = Math.max(1, slots);
+            dispatch();
+        }
+    }
+
+    public int getSlots(ResourceClass resourceClass) {
+        synchronized (lock) {
+            return stats.get(resourceClass).slots;
+        }
+    }
+
+    public int getRunning(ResourceClass resourceClass) {
+        synchronized (lock) {
+            return stats.get(resourceClass).running;
+        }
+    }
+
+    public int getPending(ResourceClass resourceClass) {
+        synchronized (lock) {
+            return pending.get(resourceClass).size();
+        }
+    }
+
+    /**
+     * Waits until every queued scenario has run
+     *
+     * @return failure message of each failed scenario
+     */
+    public List<String> awaitCompletion() throws InterruptedException {
+        synchronized (lock) {
+            while (running > 0 || exclusiveRunning || !exclusiveJobs.isEmpty()
+                    || pending.values().stream().anyMatch(jobs -> !jobs.isEmpty())) {
+                lock.wait();
+            }
+        }
+        browserExecutor.shutdown();
+        apiExecutor.shutdown();
+        return new ArrayList<>(failures);
+    }
+
+    /**
+     * Scenario counts, peak concurrency and slot utilisation per resource class
+     */
+    public String summary() {
+        synchronized (lock) {
+            long wallNanos = Math.max(1, (endNanos > 0 ? endNanos : System.nanoTime()) - startNanos);
+            StringBuilder summary = new StringBuilder(String.format("Scheduled run took %.1f s, %d failed, %d skipped",
+                    wallNanos / 1e9, failures.size(), skipped.get()));
+            stats.forEach((resourceClass, classStats) -> summary.append(String.format(
+                    "; %s: %d scenarios, peak %d/%d slots, utilisation %.0f%%",
+                    resourceClass.name().toLowerCase(), classStats.scenarios, classStats.peak, classStats.slots,
+                    100.0 * classStats.busyNanos / ((double) wallNanos * Math.min(classStats.slots, Math.max(1, classStats.scenarios))))));
+            return summary.toString();
+        }
+    }
+
+    private static class Job {
+        private final String name;
+        private final ResourceClass resourceClass;
+        private final Set<String> resources;
+        private final Runnable scenario;
+
+        private Job(String name, ResourceClass resourceClass, Set<String> resources, Runnable scenario) {
+            this.name = name;
+            this.resourceClass = resourceClass;
+            this.resources = resources;
+            this.scenario = scenario;
+        }
+    }
+
+    private static class ClassStats {
+        private int slots;
+        private int running;
+        private int peak;
+        private int scenarios;
+        private long busyNanos;
+
+        private ClassStats(int slots) {
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package runners;
+
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import reporting.Log;
+import tdm.TestDataPool;
+import utilities.ConfigReader;
+
+import java.util.List;
+
+/**
+ * TestRunner that hands every scenario to a {@link ResourceScheduler} instead of TestNG's data provider.
+ * Browser scenarios share browserSlots platform threads, @api scenarios run on virtual threads up to
+ * apiScenarioConcurrency, and @exclusive:&lt;resource&gt; tags serialize scenarios using the same resource.
+ * With adaptiveConcurrency=true an {@link AdaptiveConcurrencyController} moves the browser slot count
+ * between 1 and browserSlotsMax according to host load, sampled every adaptiveSampleSeconds.
+ * Run with -Pscheduled, or -Dtest=ScheduledRunner.
+ */
+@CucumberOptions(features = "src/test/resources/features", glue = {"steps"})
+public class ScheduledRunner extends TestRunner {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+
+    private ResourceScheduler scheduler;
+    private AdaptiveConcurrencyController controller;
+
+    // Runs after AbstractTestNGCucumberTests.setUpClass has created the Cucumber runner
+    @BeforeClass(alwaysRun = true)
+    public void startScheduledScenarios() {
+        int browserSlots = getIntSetting("browserSlots", 2);
+        int apiSlots = getIntSetting("apiScenarioConcurrency", 200);
+        boolean adaptive = Boolean.parseBoolean(System.getProperty("adaptiveConcurrency",
+                configReader.getProperty("adaptiveConcurrency")));
+        int maxBrowserSlots = adaptive ? Math.max(browserSlots, getIntSetting("browserSlotsMax", 4)) : browserSlots;
+        scheduler = new ResourceScheduler(browserSlots, maxBrowserSlots, apiSlots);
+        for (Object[] scenario : super.scenarios()) {
+            PickleWrapper pickle = (PickleWrapper) scenario[0];
+            FeatureWrapper feature = (FeatureWrapper) scenario[1];
+            scheduler.submit(pickle.getPickle().getName(), pickle.getPickle().getTags(),
+                    () -> super.runScenario(pickle, feature));
+        }
+        Log.info("Scheduling scenarios with " + browserSlots + " browser slots and " + apiSlots + " API slots");
+        // Each browser scenario that logs in leases its own account
+        int accounts = TestDataPool.forFile("accounts").size();
+        if (accounts < maxBrowserSlots) {
+            Log.logger.warn("accounts.json has " + accounts + " account(s) for up to " + maxBrowserSlots
+                    + " browser scenarios at once; logins will wait for a free account");
+        }
+        scheduler.start();
+        if (adaptive) {
+            controller = new AdaptiveConcurrencyController(scheduler, 1, maxBrowserSlots,
+                    getIntSetting("adaptiveSampleSeconds", 5) * 1000L);
+            controller.start();
+        }
+    }
+
+    private static int getIntSetting(String key, int defaultValue) {
+        String value = System.getProperty(key, configReader.getProperty(key));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid " + key + " value: " + value + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    // Every scenario is run by the scheduler
+    @Override
+    @DataProvider(parallel = false)
+    public Object[][] scenarios() {
+        return new Object[0][];
+    }
+
+    @Test(groups = {"cucumber"}, description = "Waits for the scheduled scenarios and fails if any of them failed")
+    public void scheduledScenariosPassed() throws InterruptedException {
+        List<String> failures = scheduler.awaitCompletion();
+        Log.info(scheduler.summary());
+        if (controller != null) {
+            Log.info(controller.stop());
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " scheduled scenarios failed:\n" + String.join("\n", failures));
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package runners;
 
+import drivers.DriverLifecycle;
+import drivers.DriverManager;
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
 import io.cucumber.testng.FeatureWrapper;
 import io.cucumber.testng.PickleWrapper;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
+import reporting.Log;
 import retry.Retry;
 import retry.RetryListener;
+import utilities.ConfigReader;
 
 import java.util.Locale;
 
@@ -18,11 +23,36 @@ import java.util.Locale;
         plugin = {
                 "html:target/cucumber-report.html",
                 "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:",
-                "reporting.ExtentReportListener"
+                "reporting.ExtentReportListener",
+                "reporting.StepProfiler",
+                "reporting.CommandTraceListener",
+                "reporting.EventLogWriter",
+                "reporting.StepLatency"
         })
 @Listeners(RetryListener.class)  // Attach the RetryListener
 public class TestRunner extends AbstractTestNGCucumberTests {
 
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+
+    // Runs before Cucumber parses features in setUpClass, so browsers start while parsing happens
+    @BeforeSuite(alwaysRun = true)
+    public void prewarmDrivers() {
+        // Before any browser of this run starts, so only processes of earlier runs are considered
+        if (Boolean.parseBoolean(System.getProperty("killOrphanDrivers", configReader.getProperty("killOrphanDrivers")))) {
+            DriverLifecycle.killOrphanedDrivers();
+        }
+        // Pre-warming is off when the count is missing
+        String count = System.getProperty("prewarmDrivers", configReader.getProperty("prewarmDrivers"));
+        if (count == null) {
+            return;
+        }
+        try {
+            DriverManager.prewarmDrivers(Integer.parseInt(count));
+        } catch (NumberFormatException e) {
+            Log.info("Invalid prewarmDrivers value: " + count + ". Using default: 0");
+        }
+    }
+
     // DataProvider for parallel execution with thread count
     @Override
     @DataProvider(parallel = false)  // Enable parallel with 3 threads
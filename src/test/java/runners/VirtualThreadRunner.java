@@ -0,0 +1,155 @@
+package runners;
+
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import reporting.Log;
+import retry.Retry;
+import utilities.ConfigReader;
+import utilities.HelperClass;
+import utilities.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TestRunner that takes scenarios tagged @api off the TestNG thread and runs them on virtual threads.
+ * API scenarios start as soon as Cucumber is set up, up to apiScenarioConcurrency at a time, while
+ * browser scenarios keep running through TestNG's data provider as in TestRunner. Scenarios tagged
+ * @exclusive, such as load tests, stay on the TestNG thread and start once the API scenarios are done.
+ * Virtual threads need Java 21 (-Pjava21); on older JVMs the same mode runs on a pool of
+ * apiScenarioConcurrency platform threads.
+ * API scenarios do not go through TestNG, so Retry does not see them; a failed API scenario is run
+ * again here up to retryCount times instead.
+ */
+@CucumberOptions(features = "src/test/resources/features", glue = {"steps"})
+public class VirtualThreadRunner extends TestRunner {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final String API_TAG = "@api";
+    private static final String EXCLUSIVE_TAG = "@exclusive";
+
+    private final List<CompletableFuture<String>> apiScenarios = new ArrayList<>();
+    private final AtomicInteger skippedApiScenarios = new AtomicInteger();
+    private ExecutorService executor;
+
+    // Runs after AbstractTestNGCucumberTests.setUpClass has created the Cucumber runner
+    @BeforeClass(alwaysRun = true)
+    public void startApiScenarios() {
+        int concurrency = getApiScenarioConcurrency();
+        Semaphore permits = new Semaphore(concurrency);
+        int retries = getRetryCount();
+        executor = VirtualThreads.newThreadPerTaskExecutor("api-scenario", concurrency);
+        Object[][] scenarios = select(super.scenarios(), true);
+        Log.info("Running " + scenarios.length + " API scenarios on " + (VirtualThreads.isSupported() ? "virtual" : "platform")
+                + " threads, at most " + concurrency + " at a time");
+        for (Object[] scenario : scenarios) {
+            PickleWrapper pickle = (PickleWrapper) scenario[0];
+            FeatureWrapper feature = (FeatureWrapper) scenario[1];
+            apiScenarios.add(CompletableFuture.supplyAsync(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    return runApiScenario(pickle, feature, retries);
+                } finally {
+                    permits.release();
+                }
+            }, executor));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Runs an API scenario, running it again after a failure as Retry would
+     *
+     * @return failure message, or null when the scenario passed or was skipped
+     */
+    private String runApiScenario(PickleWrapper pickle, FeatureWrapper feature, int retries) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                super.runScenario(pickle, feature);
+                return null;
+            } catch (SkipException e) {
+                // Pending and undefined steps are reported as skipped by Cucumber, not as failures
+                skippedApiScenarios.incrementAndGet();
+                return null;
+            } catch (Throwable e) {
+                if (attempt >= retries) {
+                    return pickle.getPickle().getName() + ": " + e;
+                }
+                Log.info("Retrying API scenario " + pickle.getPickle().getName() + " after: " + e);
+            }
+        }
+    }
+
+    private static int getRetryCount() {
+        String value = HelperClass.getRetryCount();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid retryCount value: " + value + ". Using default: 0");
+            return 0;
+        }
+    }
+
+    private static int getApiScenarioConcurrency() {
+        String value = System.getProperty("apiScenarioConcurrency", configReader.getProperty("apiScenarioConcurrency"));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Log.info("Invalid apiScenarioConcurrency value: " + value + ". Using default: 200");
+            return 200;
+        }
+    }
+
+    // Browser and exclusive scenarios only; API scenarios are already running on their own threads
+    @Override
+    @DataProvider(parallel = false)
+    public Object[][] scenarios() {
+        return select(super.scenarios(), false);
+    }
+
+    @Override
+    @Test(groups = {"cucumber"}, dataProvider = "scenarios", retryAnalyzer = Retry.class)
+    public void runScenario(PickleWrapper pickle, FeatureWrapper feature) {
+        if (pickle.getPickle().getTags().contains(EXCLUSIVE_TAG)) {
+            CompletableFuture.allOf(apiScenarios.toArray(new CompletableFuture[0])).join();
+        }
+        super.runScenario(pickle, feature);
+    }
+
+    @Test(groups = {"cucumber"}, description = "Waits for the API scenarios and fails if any of them failed")
+    public void apiScenariosPassed() {
+        List<String> failures = new ArrayList<>();
+        for (CompletableFuture<String> scenario : apiScenarios) {
+            String failure = scenario.join();
+            if (failure != null) {
+                failures.add(failure);
+            }
+        }
+        Log.info("API scenarios: " + apiScenarios.size() + " run, " + failures.size() + " failed, "
+                + skippedApiScenarios.get() + " skipped");
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " of " + apiScenarios.size() + " API scenarios failed:\n"
+                    + String.join("\n", failures));
+        }
+    }
+
+    private static Object[][] select(Object[][] scenarios, boolean api) {
+        List<Object[]> selected = new ArrayList<>();
+        for (Object[] scenario : scenarios) {
+            List<String> tags = ((PickleWrapper) scenario[0]).getPickle().getTags();
+            if ((tags.contains(API_TAG) && !tags.contains(EXCLUSIVE_TAG)) == api) {
+                selected.add(scenario);
+            }
+        }
+        return selected.toArray(new Object[0][]);
+    }
+}
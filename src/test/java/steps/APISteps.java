@@ -1,12 +1,267 @@
 package steps;
 
+import api.ApiClient;
+import api.ApiPipeline;
+import api.ApiRequestSpec;
+import api.LoadGenerator;
+import api.LoadReport;
+import api.ResponseValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.java.After;
+import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import reporting.Log;
+import reporting.StepTimings;
+import stubs.StubServer;
 import tdm.DataFactory;
+import tdm.LayeredMap;
+import utilities.HelperClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class APISteps {
+
+    private StubServer stub;
+    private ApiRequestSpec spec;
+    private final List<HttpResponse<String>> responses = new ArrayList<>();
+    private LoadReport loadReport;
+    private ApiPipeline.PipelineResult pipelineResult;
+    private HttpResponse<InputStream> streamedResponse;
+    private String builtPayload;
+    private Map<String, String> payloadUpdates;
+
     @Given("Validate that API payload is generated for the customer {string}")
     public void validateThatAPIPayloadIsGeneratedForTheCustomer(String customer) {
         DataFactory df = new DataFactory();
         df.buildCustomerPayloadWithUpdates(customer);
     }
+
+    @When("the payload for the customer {string} is built with the updates")
+    public void thePayloadForTheCustomerIsBuiltWithTheUpdates(String customer, Map<String, String> updates) {
+        payloadUpdates = updates;
+        builtPayload = new DataManagement_steps().buildCustomerAPIPayloadWithUpdate("dataTemplate", customer + "CustomerPayload", "datapayload", updates);
+        Log.info("Payload with updates ==> " + builtPayload);
+    }
+
+    @Then("the built payload has the fields")
+    public void theBuiltPayloadHasTheFields(Map<String, String> fields) throws IOException {
+        JsonNode payload = new ObjectMapper().readTree(builtPayload);
+        fields.forEach((field, value) -> Assert.assertEquals(payload.get(field).asText(), value, "Payload field " + field));
+    }
+
+    @And("the payload data of the customer {string} equals a copy of the env data, the customer data and the updates")
+    public void thePayloadDataEqualsACopyOfItsLayers(String customer) {
+        Map<String, String> env = DataManagement_steps.dataFile("dataEnvSpecificVariables").get(HelperClass.getEnv());
+        Map<String, String> customerData = DataManagement_steps.dataFile("datapayload").get(customer + "CustomerPayload");
+        Map<String, String> copy = new HashMap<>(env);
+        copy.putAll(customerData);
+        copy.putAll(payloadUpdates);
+
+        Map<String, String> layered = new DataManagement_steps().basePayloadData(customer + "CustomerPayload", "datapayload").with(payloadUpdates);
+        Assert.assertEquals(layered.size(), copy.size(), "Keys present in several layers must be counted once");
+        Assert.assertEquals(new HashMap<>(layered), copy, "Entries must come from the highest layer holding each key");
+        Assert.assertEquals(layered, copy);
+        // Missing layers are skipped rather than hiding the ones below
+        Assert.assertEquals(LayeredMap.of(null, env, null, customerData, payloadUpdates).with(null), copy);
+    }
+
+    @Given("a local stub API is running")
+    public void aLocalStubAPIIsRunning() throws IOException {
+        stub = StubServer.start();
+        spec = ApiRequestSpec.forBaseUri(stub.getBaseUrl());
+        Log.info("Stub API started at " + stub.getBaseUrl());
+    }
+
+    @Given("a local stub API is running with {int} ms latency")
+    public void aLocalStubAPIIsRunningWithLatency(int latencyMillis) throws IOException {
+        aLocalStubAPIIsRunning();
+        stub.withLatencyMillis(latencyMillis);
+    }
+
+    @When("the payload for the customer {string} is posted {int} times to {string}")
+    public void thePayloadForTheCustomerIsPostedTimesTo(String customer, int times, String path) {
+        String payload = new DataManagement_steps().buildCustomerAPIPayload("dataTemplate", customer + "CustomerPayload", "datapayload", null);
+        ApiClient client = ApiClient.getInstance();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < times; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> client.send(spec, "POST", path, payload), callers));
+            }
+            // The callers' HTTP time is not recorded on their threads, so the step records its wait for them
+            calls.forEach(call -> responses.add(StepTimings.awaitHttp(call)));
+        } finally {
+            callers.shutdown();
+        }
+        Log.info("Posted " + times + " payloads to " + path);
+    }
+
+    @When("the payload for the customer {string} is replayed to {string} at {int} requests per second for {int} seconds")
+    public void thePayloadForTheCustomerIsReplayedAtRequestsPerSecond(String customer, String path, int rate, int seconds) {
+        String payload = new DataManagement_steps().buildCustomerAPIPayload("dataTemplate", customer + "CustomerPayload", "datapayload", null);
+        // A client of its own, so the shared client's permit limit does not hold back the arrival rate
+        ApiClient client = ApiClient.forLoad(rate);
+        try {
+            LoadGenerator generator = new LoadGenerator(customer + "-" + path, rate, Duration.ofSeconds(seconds));
+            loadReport = generator.run(() -> client.send(spec, "POST", path, payload));
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    @Then("the load report shows {int} requests without errors")
+    public void theLoadReportShowsRequestsWithoutErrors(int requests) {
+        Assert.assertEquals(loadReport.getRequests(), requests);
+        Assert.assertEquals(loadReport.getErrors(), 0, loadReport.summary());
+    }
+
+    @And("the load report p99 response time is below {int} ms")
+    public void theLoadReportP99ResponseTimeIsBelow(int millis) {
+        Assert.assertTrue(loadReport.getResponseTimePercentileMillis(99) < millis, loadReport.summary());
+    }
+
+    @When("every customer in {string} is posted to {string} with at most {int} requests in flight in batches of {int}")
+    public void everyCustomerIsPostedThroughThePipeline(String testDataJson, String path, int maxInFlight, int batchSize) {
+        ApiPipeline pipeline = new ApiPipeline(ApiClient.getInstance(), spec, "POST", path, maxInFlight, batchSize);
+        pipelineResult = pipeline.run(new DataFactory().customerPayloads(testDataJson));
+        responses.addAll(pipelineResult.getResponses());
+    }
+
+    @When("{int} payloads for the customer {string} are posted to {string} with at most {int} requests in flight in batches of {int}")
+    public void payloadsForTheCustomerArePostedThroughThePipeline(int copies, String customer, String path, int maxInFlight, int batchSize) {
+        ApiPipeline pipeline = new ApiPipeline(ApiClient.getInstance(), spec, "POST", path, maxInFlight, batchSize);
+        pipelineResult = pipeline.run(new DataFactory().customerPayloadCopies(customer, copies));
+        responses.addAll(pipelineResult.getResponses());
+    }
+
+    @Then("the pipeline sent {int} payloads in {int} requests without failures")
+    public void thePipelineSentPayloadsInRequestsWithoutFailures(int payloads, int requests) {
+        Assert.assertEquals(pipelineResult.getPayloadCount(), payloads);
+        Assert.assertEquals(pipelineResult.getRequestCount(), requests);
+        Assert.assertTrue(pipelineResult.getFailures().isEmpty(), String.join("\n", pipelineResult.getFailures()));
+    }
+
+    @And("the stub API returns {int} copies of the customer {string} for {string}")
+    public void theStubAPIReturnsCopiesOfTheCustomer(int copies, String customer, String path) {
+        stub.respondWith(path, customerList(customer, copies));
+    }
+
+    @And("the stub API returns {int} copies of the customer {string} in the {string} field of a page for {string}")
+    public void theStubAPIReturnsCopiesOfTheCustomerInAPage(int copies, String customer, String field, String path) {
+        stub.respondWith(path, "{\"page\":1,\"" + field + "\":" + customerList(customer, copies) + ",\"total\":" + copies + "}");
+    }
+
+    private static String customerList(String customer, int copies) {
+        String payload = new DataManagement_steps().buildCustomerAPIPayload("dataTemplate", customer + "CustomerPayload", "datapayload", null);
+        StringBuilder body = new StringBuilder(copies * (payload.length() + 1) + 2).append('[');
+        for (int i = 0; i < copies; i++) {
+            body.append(i == 0 ? "" : ",").append(payload);
+        }
+        return body.append(']').toString();
+    }
+
+    @When("the customer list is fetched from {string}")
+    public void theCustomerListIsFetchedFrom(String path) {
+        streamedResponse = ApiClient.getInstance().sendForStream(spec, "GET", path, null);
+        Assert.assertEquals(streamedResponse.statusCode(), 200);
+    }
+
+    @Then("the response matches the schema {string} with {int} elements")
+    public void theResponseMatchesTheSchemaWithElements(String schema, int count) {
+        new ResponseValidator()
+                .withSchema("src/test/resources/schemas/" + schema + ".json")
+                .expectCount(count)
+                .assertValid(streamedResponse.body());
+    }
+
+    @And("every element of the response has {string} equal to {string}")
+    public void everyElementOfTheResponseHasEqualTo(String jsonPath, String expected) {
+        // The body stream was consumed by the schema check, so fetch the list once more
+        HttpResponse<InputStream> response = ApiClient.getInstance().sendForStream(spec, "GET", streamedResponse.uri().getPath(), null);
+        new ResponseValidator().expect(jsonPath, expected).assertValid(response.body());
+    }
+
+    @Then("the list at {string} in the response matches the schema {string} with {int} elements")
+    public void theListInTheResponseMatchesTheSchemaWithElements(String pointer, String schema, int count) {
+        new ResponseValidator()
+                .withArrayAt(pointer)
+                .withSchema("src/test/resources/schemas/" + schema + ".json")
+                .expectCount(count)
+                .assertValid(streamedResponse.body());
+    }
+
+    @And("every element of the list at {string} in the response has {string} equal to {string}")
+    public void everyElementOfTheListInTheResponseHasEqualTo(String pointer, String jsonPath, String expected) {
+        // The body stream was consumed by the schema check, so fetch the page once more
+        HttpResponse<InputStream> response = ApiClient.getInstance().sendForStream(spec, "GET", streamedResponse.uri().getPath(), null);
+        new ResponseValidator().withArrayAt(pointer).expect(jsonPath, expected).assertValid(response.body());
+    }
+
+    @Then("validating {string} equal to {string} for the list at {string} against the schema {string} reports {int} mismatches")
+    public void validatingTheListAgainstTheSchemaReportsMismatches(String jsonPath, String expected, String pointer, String schema, int count) {
+        List<String> mismatches = new ResponseValidator()
+                .withArrayAt(pointer)
+                .withSchema("src/test/resources/schemas/" + schema + ".json")
+                .expect(jsonPath, expected)
+                .validate(streamedResponse.body());
+        Log.info("Response mismatches ==> " + mismatches.size() + ", first: " + mismatches.get(0));
+        Assert.assertEquals(mismatches.size(), count);
+        Assert.assertTrue(mismatches.get(0).startsWith("$." + pointer.substring(1) + "[0] "), mismatches.get(0));
+    }
+
+    @Then("validating {string} equal to {string} against the schema {string} reports {int} mismatches")
+    public void validatingAgainstTheSchemaReportsMismatches(String jsonPath, String expected, String schema, int count) {
+        List<String> mismatches = new ResponseValidator()
+                .withSchema("src/test/resources/schemas/" + schema + ".json")
+                .expect(jsonPath, expected)
+                .validate(streamedResponse.body());
+        Log.info("Response mismatches ==> " + mismatches.size() + ", first: " + mismatches.get(0));
+        Assert.assertEquals(mismatches.size(), count);
+    }
+
+    @Then("every API response has status {int}")
+    public void everyAPIResponseHasStatus(int status) {
+        Assert.assertFalse(responses.isEmpty(), "No API responses were recorded");
+        for (HttpResponse<String> response : responses) {
+            Assert.assertEquals(response.statusCode(), status, "Unexpected status for " + response.uri());
+        }
+    }
+
+    @And("the stub API received {int} requests over at most {int} connections")
+    public void theStubAPIReceivedRequestsOverAtMostConnections(int requests, int connections) {
+        Log.info("Stub API received " + stub.getRequestCount() + " requests over " + stub.getConnectionCount() + " connections");
+        Assert.assertEquals(stub.getRequestCount(), requests);
+        Assert.assertTrue(stub.getConnectionCount() <= connections,
+                "Connections were not reused: " + stub.getConnectionCount() + " opened");
+    }
+
+    @And("the stub API handled at most {int} requests at once")
+    public void theStubAPIHandledAtMostRequestsAtOnce(int limit) {
+        int peak = stub.getPeakConcurrentRequests();
+        Log.info("Stub API handled at most " + peak + " requests at once");
+        Assert.assertTrue(peak <= limit, "The stub API handled " + peak + " requests at once, above the limit of " + limit);
+        // Requests were sent side by side, not one after another
+        Assert.assertTrue(peak > 1, "The stub API never handled more than one request at once");
+    }
+
+    @After
+    public void stopStub() {
+        if (stub != null) {
+            stub.stop();
+        }
+    }
 }
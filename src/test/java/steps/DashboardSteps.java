@@ -0,0 +1,72 @@
+package steps;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import pages.DashboardFixturePage;
+import pages.ElementSnapshot;
+import pages.PageRegistry;
+import reporting.Log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Step definitions for the dashboard fixture feature
+ */
+public class DashboardSteps {
+
+    // Page Objects, created on first use and shared by the scenario's steps
+    private DashboardFixturePage dashboardPage() {
+        return PageRegistry.get(DashboardFixturePage.class);
+    }
+
+    @Given("user opens the dashboard fixture")
+    public void userOpensTheDashboardFixture() {
+        dashboardPage().open();
+    }
+
+    @Then("the dashboard shows title {string}, revenue {string} and order status {string}")
+    public void theDashboardShows(String title, String revenue, String status) {
+        Map<String, String> summary = dashboardPage().readSummary();
+        Log.info("Dashboard summary: " + summary);
+        Assert.assertEquals(summary.get(DashboardFixturePage.TITLE), title);
+        Assert.assertEquals(summary.get(DashboardFixturePage.REVENUE), revenue);
+        Assert.assertEquals(summary.get(DashboardFixturePage.ORDER_STATUS), status);
+    }
+
+    @When("user refreshes the orders inside their frame")
+    public void userRefreshesTheOrdersInsideTheirFrame() {
+        dashboardPage().refreshOrders();
+    }
+
+    @Then("the dashboard title element reads {string}")
+    public void theDashboardTitleElementReads(String title) {
+        Assert.assertEquals(dashboardPage().titleText(), title);
+    }
+
+    @Then("finding the order status element from the top-level document is rejected")
+    public void findingTheOrderStatusElementIsRejected() {
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> dashboardPage().locators().findAll(DashboardFixturePage.ORDER_STATUS));
+    }
+
+    @Then("the revenue card snapshot holds label {string} and value {string}")
+    public void theRevenueCardSnapshotHolds(String label, String value) {
+        ElementSnapshot card = dashboardPage().revenueCard();
+        Log.info("Revenue card snapshot: " + card);
+        Assert.assertFalse(card.isTruncated(), "Revenue card snapshot was truncated");
+        List<String> spans = card.descendants("span").stream().map(ElementSnapshot::getText).collect(Collectors.toList());
+        Assert.assertTrue(spans.contains(label), "Slotted label missing from " + spans);
+        Assert.assertTrue(spans.contains(value), "Shadow value missing from " + spans);
+    }
+
+    @Then("the orders table snapshot holds {int} rows")
+    public void theOrdersTableSnapshotHoldsRows(int rows) {
+        ElementSnapshot table = dashboardPage().ordersTable();
+        Assert.assertFalse(table.isTruncated(), "Orders table snapshot was truncated");
+        Assert.assertEquals(table.descendants("tr").size(), rows);
+    }
+}
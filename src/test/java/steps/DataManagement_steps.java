@@ -1,28 +1,27 @@
 package steps;
 
 import reporting.Log;
+import tdm.LayeredMap;
 import utilities.HelperClass;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static api.ApiUtils.buildPayloadUsingJSON;
 import static api.ApiUtils.convertJSONFileToMap;
 
 public class DataManagement_steps {
 
+    // Parsed test data files, shared read-only by every payload built from them
+    private static final Map<String, Map<String, Map<String, String>>> dataFiles = new ConcurrentHashMap<>();
+
 
     public String buildCustomerAPIPayload(String templateSchema,String dataRef,String testDataJson, Map<String,String> updateAttMap){
         Log.info("==> Template to which the data would be Appended"+templateSchema);
         Log.info("==> Data Ref which is the set of data that gets picked from the complete payload"+dataRef);
         Log.info("==> Json File that contains the complete testdata including the dataRef"+testDataJson);
-        Map envdata = convertJSONFileToMap("src/test/resources/payloads/dataEnvSpecificVariables.json");
-        Map<String,String> envSpecificAttr = (Map) envdata.get(HelperClass.getEnv());
-        Log.info("envData==>"+envSpecificAttr);
-        Map staticData =convertJSONFileToMap("src/test/resources/payloads/"+testDataJson+".json");
-        Map<String,String> staticAttr = (Map) staticData.get(dataRef);
-        Log.info("static Attribute===>"+staticData);
-        envSpecificAttr.putAll(staticAttr);
-        Map<String,String> payload =envSpecificAttr;
+        Map<String,String> payload = basePayloadData(dataRef,testDataJson);
         Log.info("Complete payload without UpdateMap Attribute==>  "+payload);
         String jsonPayload =buildPayloadUsingJSON("src/test/resources/payloads/"+templateSchema+".json",payload);
         return jsonPayload;
@@ -33,22 +32,37 @@ public class DataManagement_steps {
         Log.info("==> Template to which the data would be Appended"+templateSchema);
         Log.info("==> Data Ref which is the set of data that gets picked from the complete payload"+dataRef);
         Log.info("==> Json File that contains the complete testdata including the dataRef"+testDataJson);
-        Map envdata = convertJSONFileToMap("src/test/resources/payloads/dataEnvSpecificVariables.json");
-        Map<String,String> envSpecificAttr = (Map) envdata.get(HelperClass.getEnv());
-        Log.info("envData==>"+envSpecificAttr);
-        Map staticData =convertJSONFileToMap("src/test/resources/payloads/"+testDataJson+".json");
-        Map<String,String> staticAttr = (Map) staticData.get(dataRef);
-        Log.info("static Attribute===>"+staticData);
-        envSpecificAttr.putAll(staticAttr);
-        Map<String,String> payload =envSpecificAttr;
-        Log.info("Complete payload without UpdateMap Attribute==>  "+payload);
-        if(updateAttMap !=null){
-            payload.putAll(updateAttMap);
-        }
+        LayeredMap<String,String> basePayload = basePayloadData(dataRef,testDataJson);
+        Log.info("Complete payload without UpdateMap Attribute==>  "+basePayload);
+        // Overrides are layered on top; the env and customer data are looked up, not copied
+        Map<String,String> payload = basePayload.with(updateAttMap);
         String jsonPayload =buildPayloadUsingJSON("src/test/resources/payloads/"+templateSchema+".json",payload);
         return jsonPayload;
     }
 
 
-}
+    // Env-specific attributes overlaid with the dataRef's static data
+    LayeredMap<String,String> basePayloadData(String dataRef,String testDataJson){
+        Map<String,String> envSpecificAttr = dataFile("dataEnvSpecificVariables").get(HelperClass.getEnv());
+        Log.info("envData==>"+envSpecificAttr);
+        Map<String,String> staticAttr = dataFile(testDataJson).get(dataRef);
+        if(staticAttr == null){
+            throw new IllegalArgumentException("No test data "+dataRef+" found in "+testDataJson+".json");
+        }
+        Log.info("static Attribute===>"+staticAttr);
+        return LayeredMap.of(envSpecificAttr,staticAttr);
+    }
 
+
+    static Map<String, Map<String, String>> dataFile(String testDataJson){
+        return dataFiles.computeIfAbsent(testDataJson, file -> {
+            Map<String, Map<String, String>> data = convertJSONFileToMap("src/test/resources/payloads/"+file+".json");
+            if(data == null){
+                throw new IllegalStateException("Cannot read test data file "+file+".json");
+            }
+            return Collections.unmodifiableMap(data);
+        });
+    }
+
+
+}
@@ -0,0 +1,90 @@
+package steps;
+
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import reporting.Log;
+import tdm.TestDataPool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DataPoolSteps {
+
+    private final AtomicInteger collisions = new AtomicInteger();
+    private final AtomicInteger completedLeases = new AtomicInteger();
+    private TestDataPool.Lease earlierLease;
+    private TestDataPool.Lease currentLease;
+
+    @When("{int} workers lease records from {string} {int} times each")
+    public void workersLeaseRecordsTimesEach(int workers, String testDataJson, int times) throws Exception {
+        TestDataPool pool = TestDataPool.forFile(testDataJson);
+        Set<String> inUse = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < times; i++) {
+                        TestDataPool.Lease lease = pool.lease(Duration.ofSeconds(10));
+                        if (!inUse.add(lease.getKey())) {
+                            collisions.incrementAndGet();
+                        }
+                        Thread.yield();
+                        inUse.remove(lease.getKey());
+                        lease.release();
+                        completedLeases.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Log.info(TestDataPool.metricsSummary());
+    }
+
+    @When("every record of {string} is leased, released and leased again")
+    public void everyRecordIsLeasedReleasedAndLeasedAgain(String testDataJson) {
+        TestDataPool pool = TestDataPool.forFile(testDataJson);
+        Assert.assertEquals(pool.size(), 1, "This check needs a pool with a single record");
+        earlierLease = pool.lease(Duration.ofSeconds(10));
+        earlierLease.release();
+        currentLease = pool.lease(Duration.ofSeconds(10));
+        Assert.assertEquals(currentLease.getKey(), earlierLease.getKey());
+    }
+
+    @And("the earlier lease is released again")
+    public void theEarlierLeaseIsReleasedAgain() {
+        earlierLease.release();
+    }
+
+    @Then("no record of {string} can be leased while the current lease is held")
+    public void noRecordCanBeLeasedWhileTheCurrentLeaseIsHeld(String testDataJson) {
+        try {
+            TestDataPool.Lease second = TestDataPool.forFile(testDataJson).lease(Duration.ofMillis(200));
+            second.release();
+            Assert.fail("Record " + second.getKey() + " was leased while " + currentLease.getKey() + " was still held");
+        } catch (IllegalStateException e) {
+            Log.info("Record stays leased after a stale release: " + e.getMessage());
+        } finally {
+            currentLease.release();
+        }
+    }
+
+    @Then("{int} leases completed without any record leased twice at once")
+    public void leasesCompletedWithoutAnyRecordLeasedTwiceAtOnce(int leases) {
+        Assert.assertEquals(completedLeases.get(), leases);
+        Assert.assertEquals(collisions.get(), 0, "Records were leased to two workers at once");
+    }
+}
@@ -0,0 +1,143 @@
+package steps;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Location;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.Step;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.testng.Assert;
+import reporting.EventLogRenderer;
+import reporting.EventLogWriter;
+import reporting.Log;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Feeds scenario events to an {@link EventLogWriter} and checks that {@link EventLogRenderer} reads the log back
+ */
+public class EventLogSteps {
+
+    // Characters that need escaping in JSON, HTML and XML
+    private static final String AWKWARD_NAME = "Checkout with \"gift\" <card> & note\\path";
+
+    private final Path dir = Paths.get("target", "event-log-check", UUID.randomUUID().toString());
+    private final Path eventLog = dir.resolve("events.ndjson.gz");
+    private final DirectPublisher publisher = new DirectPublisher();
+    private EventLogRenderer.Totals totals;
+
+    @Given("an event log is written for {int} passed and {int} failed scenarios without finishing the run")
+    public void anEventLogIsWrittenWithoutFinishingTheRun(int passed, int failed) {
+        EventLogWriter.writingTo(eventLog).setEventPublisher(publisher);
+        for (int i = 0; i < passed + failed; i++) {
+            TestCase testCase = testCase(AWKWARD_NAME + " " + i, 10 + i);
+            boolean fails = i >= passed;
+            Result result = fails
+                    ? new Result(Status.FAILED, Duration.ofMillis(5), new AssertionError("expected [1]\nbut found [2]\u0007"))
+                    : new Result(Status.PASSED, Duration.ofMillis(5), null);
+            publisher.publish(new TestCaseStarted(Instant.now(), testCase));
+            publisher.publish(new TestStepFinished(Instant.now(), testCase, step("Given ", "a step with \"quotes\""), result));
+            publisher.publish(new TestCaseFinished(Instant.now(), testCase, result));
+        }
+    }
+
+    @When("the event log run finishes")
+    public void theEventLogRunFinishes() {
+        publisher.publish(new TestRunFinished(Instant.now(), new Result(Status.PASSED, Duration.ZERO, null)));
+    }
+
+    @Then("the event log renders {int} scenarios with {int} failed")
+    public void theEventLogRendersScenarios(int scenarios, int failed) throws IOException {
+        totals = new EventLogRenderer(eventLog, dir).render();
+        Log.info("Rendered event log " + eventLog + ": " + totals.getScenarios() + " scenarios, complete=" + totals.isComplete());
+        Assert.assertEquals(totals.getScenarios(), scenarios);
+        Assert.assertEquals(totals.getFailed(), failed);
+
+        String junit = new String(Files.readAllBytes(dir.resolve("junit.xml")), StandardCharsets.UTF_8);
+        Assert.assertEquals(junit.split("<testcase ", -1).length - 1, scenarios);
+        Assert.assertTrue(junit.contains("Checkout with &quot;gift&quot; &lt;card&gt; &amp; note\\path 0"), junit);
+        Assert.assertTrue(junit.contains("expected [1]"), junit);
+        Assert.assertTrue(Files.size(dir.resolve("report.html")) > 0);
+    }
+
+    @Then("the rendered event log is reported as {string}")
+    public void theRenderedEventLogIsReportedAs(String state) {
+        Assert.assertEquals(totals.isComplete() ? "complete" : "ending early", state);
+    }
+
+    private static TestCase testCase(String name, int line) {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> values = new HashMap<>();
+        values.put("getId", id);
+        values.put("getName", name);
+        values.put("getUri", URI.create("classpath:features/EventLog.feature"));
+        values.put("getLocation", new Location(line, 3));
+        values.put("getLine", line);
+        values.put("getTags", Arrays.asList("@api"));
+        values.put("getKeyword", "Scenario");
+        return fake(TestCase.class, values);
+    }
+
+    private static PickleStepTestStep step(String keyword, String text) {
+        Map<String, Object> stepValues = new HashMap<>();
+        stepValues.put("getKeyword", keyword);
+        stepValues.put("getText", text);
+        Map<String, Object> values = new HashMap<>();
+        values.put("getStep", fake(Step.class, stepValues));
+        values.put("getStepText", text);
+        return fake(PickleStepTestStep.class, values);
+    }
+
+    // Plugin event interfaces have no public implementations, so fakes answer the getters the writer calls
+    private static <T> T fake(Class<T> type, Map<String, Object> values) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> values.get(method.getName())));
+    }
+
+    /**
+     * Delivers events synchronously to the handlers registered for their exact type
+     */
+    private static class DirectPublisher implements EventPublisher {
+        private final Map<Class<?>, List<EventHandler<?>>> handlers = new HashMap<>();
+
+        @Override
+        public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+            handlers.computeIfAbsent(eventType, type -> new ArrayList<>()).add(handler);
+        }
+
+        @Override
+        public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+            handlers.getOrDefault(eventType, new ArrayList<>()).remove(handler);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> void publish(T event) {
+            for (EventHandler<?> handler : handlers.getOrDefault(event.getClass(), new ArrayList<>())) {
+                ((EventHandler<T>) handler).receive(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package steps;
+
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import reporting.Log;
+import runners.FeatureIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Indexes a feature tree written to a temporary directory and checks what {@link FeatureIndex} parses and selects
+ */
+public class FeatureIndexSteps {
+
+    private final Path dir = Paths.get("target", "feature-index-check", UUID.randomUUID().toString());
+    private final Path featureRoot = dir.resolve("features");
+    private final Path indexFile = dir.resolve("index.json");
+    private FeatureIndex index;
+
+    @Given("a feature tree with the files and scenario tags")
+    public void aFeatureTreeWithTheFiles(Map<String, String> files) throws IOException {
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            writeFeature(file.getKey(), file.getValue());
+        }
+    }
+
+    @And("a feature file {string} that does not parse")
+    public void aFeatureFileThatDoesNotParse(String name) throws IOException {
+        write(name, "Feature: " + name + "\n"
+                + "  Scenario: broken\n"
+                + "    Given a step\n"
+                + "  this line is not Gherkin\n");
+    }
+
+    @When("the feature tree is indexed")
+    public void theFeatureTreeIsIndexed() {
+        index = FeatureIndex.build(featureRoot, indexFile);
+        Log.info("Indexed " + index.getFileCount() + " feature files in " + index.getBuildMillis() + " ms, "
+                + index.getParsedFiles() + " parsed");
+    }
+
+    @When("the scenario tags of {string} change to {string} and the feature tree is indexed")
+    public void theScenarioTagsChangeAndTheFeatureTreeIsIndexed(String name, String tags) throws IOException {
+        writeFeature(name, tags);
+        theFeatureTreeIsIndexed();
+    }
+
+    @Then("{int} feature files with {int} scenarios were indexed and {int} of them parsed")
+    public void featureFilesWereIndexed(int files, int scenarios, int parsed) {
+        Assert.assertEquals(index.getFileCount(), files, "Indexed files");
+        Assert.assertEquals(index.getScenarioCount(), scenarios, "Indexed scenarios");
+        Assert.assertEquals(index.getParsedFiles(), parsed, "Parsed files");
+    }
+
+    @Then("the features matching {string} are {string}")
+    public void theFeaturesMatchingAre(String tagExpression, String names) {
+        List<String> expected = new ArrayList<>();
+        for (String name : names.split(", ")) {
+            expected.add(featureRoot.resolve(name).toString().replace('\\', '/'));
+        }
+        Assert.assertEquals(index.featuresMatching(tagExpression), expected, "Features matching " + tagExpression);
+    }
+
+    // One scenario per tag list, separated by "|"
+    private void writeFeature(String name, String scenarioTags) throws IOException {
+        StringBuilder feature = new StringBuilder("Feature: " + name + "\n");
+        int scenario = 0;
+        for (String tags : Arrays.asList(scenarioTags.split("\\|"))) {
+            feature.append("  ").append(tags.trim()).append("\n")
+                    .append("  Scenario: scenario ").append(++scenario).append("\n")
+                    .append("    Given a step\n");
+        }
+        write(name, feature.toString());
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.createDirectories(featureRoot);
+        Files.write(featureRoot.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
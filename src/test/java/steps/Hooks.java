@@ -1,21 +1,69 @@
 package steps;
 
+import configuration.ScenarioDataStore;
 import configuration.ScenarioStorage;
+import drivers.DriverLifecycle;
+import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import org.apache.logging.log4j.ThreadContext;
+import pages.PageRegistry;
+import reporting.ExtentManager;
 import reporting.Log;
+import reporting.ScreenshotManager;
+import tdm.TestDataPool;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Hooks {
+
+    private static final AtomicInteger scenarioCount = new AtomicInteger();
+
     @Before
     public void beforeScenario(Scenario scenario) throws IOException {
         ThreadContext.put("scenario", scenario.getName());
+        // Names the scenario's own log file under target/logs/scenarios
+        ThreadContext.put("scenarioId", String.format("%04d-%s", scenarioCount.incrementAndGet(), fileSafe(scenario.getName())));
         ScenarioStorage.putScenario(scenario);
         Log.info("Validating Scenario ==>"+scenario.getName());
 
     }
 
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        if (ScreenshotManager.shouldCapture(scenario.isFailed())) {
+            String path = ScreenshotManager.captureForStep();
+            if (path != null) {
+                scenario.attach(path, "text/uri-list", "screenshot");
+            }
+        }
+    }
+
+    @After
+    public void afterScenario(Scenario scenario) {
+        TestDataPool.releaseScenarioLeases();
+        PageRegistry.clearScenarioPages();
+        ScenarioDataStore.reset();
+        DriverLifecycle.afterScenario();
+        ScenarioStorage.removeScenario();
+        // Pooled threads must not route the next scenario's events to this scenario's log
+        ThreadContext.clearMap();
+    }
+
+    private static String fileSafe(String name) {
+        String safe = name.replaceAll("[^A-Za-z0-9_-]+", "_");
+        return safe.length() > 80 ? safe.substring(0, 80) : safe;
+    }
 
+    @AfterAll
+    public static void afterAllScenarios() {
+        Log.info(TestDataPool.metricsSummary());
+        DriverLifecycle.quitAll();
+        Log.info(DriverLifecycle.summary());
+        ScreenshotManager.awaitPendingWrites();
+        ExtentManager.flush();
+    }
 }
@@ -6,20 +6,24 @@ import io.cucumber.java.en.When;
 import io.cucumber.java.en.Then;
 import org.testng.Assert;
 import pages.LoginPage;
+import pages.PageRegistry;
 import reporting.Log;
+import tdm.TestDataPool;
 
 /**
  * Step definitions for Login feature
  */
 public class LoginSteps {
 
-    // Page Objects
-    private final LoginPage loginPage = new LoginPage();
+    // Page Objects, created on first use and shared by the scenario's steps
+    private LoginPage loginPage() {
+        return PageRegistry.get(LoginPage.class);
+    }
 
 
     @Given("user navigates to the login page")
     public void userNavigatesToLoginPage() {
-        loginPage.navigateToLoginPage();
+        loginPage().navigateToLoginPage();
         Log.info("Verified user is on login page");
     }
 
@@ -28,7 +32,9 @@ public class LoginSteps {
 
     @And("User enters the credentials to valdate successfully logged in")
     public void userEntersTheCredentialsToValdateSuccessfullyLoggedIn() {
-        loginPage.enterCredentials("8825121979","Siechem@123");
+        // Lease an account so parallel scenarios never log in with the same user
+        TestDataPool.Lease account = TestDataPool.forFile("accounts").lease();
+        loginPage().enterCredentials(account.get("username"),account.get("password"));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package steps;
+
+import api.JsonTemplate;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.java.en.Then;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.VelocityEngine;
+import org.testng.Assert;
+import reporting.Log;
+import utilities.HelperClass;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static api.ApiUtils.convertJSONFileToMap;
+
+/**
+ * Checks that payload templates compiled by {@link JsonTemplate} render the same JSON as Velocity
+ */
+public class PayloadTemplateSteps {
+
+    private static final String PAYLOAD_DIR = "src/test/resources/payloads/";
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final VelocityEngine velocityEngine = new VelocityEngine();
+
+    // Values that must be escaped inside a JSON string, or that look like template syntax
+    private static final List<String> AWKWARD_VALUES = Arrays.asList(
+            "say \"hello\"", "C:\\temp\\new", "line1\nline2\r\n", "tab\there", "bell\u0007 backspace\b nul\u0000",
+            "unicode \u00e9 \u2028", "$Bankingholder", "quote at end\"", "\\", "");
+
+    static {
+        velocityEngine.init();
+    }
+
+    @Then("the payload template {string} renders like Velocity for every customer in {string}")
+    public void thePayloadTemplateRendersLikeVelocityForEveryCustomer(String template, String testDataJson) throws IOException {
+        Map<String, Map<String, String>> envData = convertJSONFileToMap(PAYLOAD_DIR + "dataEnvSpecificVariables.json");
+        Map<String, Map<String, String>> customers = convertJSONFileToMap(PAYLOAD_DIR + testDataJson + ".json");
+        for (Map.Entry<String, Map<String, String>> customer : customers.entrySet()) {
+            Map<String, String> data = new HashMap<>(envData.get(HelperClass.getEnv()));
+            data.putAll(customer.getValue());
+            assertRendersLikeVelocity(template, data);
+        }
+        Log.info("Template " + template + " rendered like Velocity for " + customers.size() + " customers");
+    }
+
+    @Then("the payload template {string} renders like Velocity with values containing quotes, backslashes and control characters")
+    public void thePayloadTemplateRendersLikeVelocityWithAwkwardValues(String template) throws IOException {
+        // Every reference in the template gets each awkward value in turn
+        List<String> names = referenceNames(template);
+        for (int offset = 0; offset < AWKWARD_VALUES.size(); offset++) {
+            Map<String, String> data = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                data.put(names.get(i), AWKWARD_VALUES.get((i + offset) % AWKWARD_VALUES.size()));
+            }
+            assertRendersLikeVelocity(template, data);
+        }
+    }
+
+    @Then("the payload template {string} is rendered by Velocity")
+    public void thePayloadTemplateIsRenderedByVelocity(String template) {
+        Assert.assertFalse(JsonTemplate.forFile(PAYLOAD_DIR + template + ".json").isCompiled(),
+                template + " is compiled, so it does not check the Velocity path");
+    }
+
+    @Then("the payload template {string} keeps values containing quotes, backslashes and control characters as they are")
+    public void thePayloadTemplateKeepsAwkwardValuesAsTheyAre(String template) throws IOException {
+        String path = PAYLOAD_DIR + template + ".json";
+        Map<String, String> references = references(path);
+        List<String> names = new ArrayList<>(references.values());
+        for (int offset = 0; offset < AWKWARD_VALUES.size(); offset++) {
+            Map<String, String> data = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                data.put(names.get(i), AWKWARD_VALUES.get((i + offset) % AWKWARD_VALUES.size()));
+            }
+            // Compiled or merged by Velocity, every field must parse back to exactly its value
+            JsonNode json = mapper.readTree(JsonTemplate.forFile(path).render(data));
+            for (Map.Entry<String, String> reference : references.entrySet()) {
+                Assert.assertEquals(json.get(reference.getKey()).asText(), data.get(reference.getValue()),
+                        "Field " + reference.getKey() + " of " + template + " does not hold its value");
+            }
+        }
+    }
+
+    @Then("the payload template {string} renders like Velocity when no values are given")
+    public void thePayloadTemplateRendersLikeVelocityWithoutValues(String template) throws IOException {
+        assertRendersLikeVelocity(template, Collections.emptyMap());
+    }
+
+    /**
+     * Renders a template with JsonTemplate and with Velocity, and checks both give the same JSON and that
+     * each field holds exactly its value. JsonTemplate escapes values placed inside JSON strings while
+     * Velocity inserts them as they are, so Velocity is given the values already escaped.
+     */
+    private static void assertRendersLikeVelocity(String template, Map<String, String> data) throws IOException {
+        String path = PAYLOAD_DIR + template + ".json";
+        JsonTemplate compiled = JsonTemplate.forFile(path);
+        Assert.assertTrue(compiled.isCompiled(), path + " is rendered by Velocity, so there is nothing to compare");
+        String actual = compiled.render(data);
+
+        Map<String, Object> escapedData = new HashMap<>();
+        boolean escapingNeeded = false;
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            String escaped = new String(JsonStringEncoder.getInstance().quoteAsString(entry.getValue()));
+            escapedData.put(entry.getKey(), escaped);
+            escapingNeeded |= !escaped.equals(entry.getValue());
+        }
+        StringWriter expected = new StringWriter();
+        velocityEngine.getTemplate(path).merge(new VelocityContext(escapedData), expected);
+
+        if (!escapingNeeded) {
+            Assert.assertEquals(actual, expected.toString(), "JsonTemplate and Velocity output differ for " + data);
+        }
+        // Jackson writes control character escapes in upper case hex, JsonTemplate in lower case, so compare parsed JSON
+        JsonNode actualJson = mapper.readTree(actual);
+        Assert.assertEquals(actualJson, mapper.readTree(expected.toString()), "JsonTemplate and Velocity JSON differ for " + data);
+
+        // A reference without a value stays as written, as in Velocity
+        for (Map.Entry<String, String> reference : references(path).entrySet()) {
+            String text = "$" + reference.getValue();
+            Assert.assertEquals(actualJson.get(reference.getKey()).asText(), data.getOrDefault(reference.getValue(), text),
+                    "Field " + reference.getKey() + " does not hold its value");
+        }
+    }
+
+    private static List<String> referenceNames(String template) throws IOException {
+        return new ArrayList<>(references(PAYLOAD_DIR + template + ".json").values());
+    }
+
+    /**
+     * The template's string fields whose whole value is a reference
+     *
+     * @return reference name by field name
+     */
+    private static Map<String, String> references(String path) throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        Map<String, String> references = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = mapper.readTree(text).fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String value = field.getValue().asText();
+            if (value.startsWith("$")) {
+                references.put(field.getKey(), value.substring(1));
+            }
+        }
+        return references;
+    }
+}
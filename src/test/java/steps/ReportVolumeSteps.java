@@ -0,0 +1,85 @@
+package steps;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import reporting.Log;
+import reporting.ReportVolume;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admits a long run of log messages to {@link ReportVolume} and checks which of them would reach the reports
+ */
+public class ReportVolumeSteps {
+
+    private final List<ReportVolume.Entry> kept = new ArrayList<>();
+    private String omittedNote;
+
+    @Given("a scenario has logged nothing to the report yet")
+    public void aScenarioHasLoggedNothingToTheReportYet() {
+        // Drops the messages the hooks logged before this step
+        ReportVolume.startScenario();
+    }
+
+    @When("a message of {int} characters and then {int} short messages are logged")
+    public void messagesAreLogged(int longLength, int count) {
+        StringBuilder longMessage = new StringBuilder("Response body: ");
+        while (longMessage.length() < longLength) {
+            longMessage.append('x');
+        }
+        admit(longMessage.toString());
+        for (int i = 1; i <= count; i++) {
+            admit("Polling message " + i);
+        }
+        omittedNote = ReportVolume.endScenario();
+        // Hooks end the scenario again, and find nothing left to note
+        ReportVolume.startScenario();
+        Log.info(kept.size() + " messages kept; " + omittedNote);
+    }
+
+    private void admit(String message) {
+        ReportVolume.Entry entry = ReportVolume.admit(message);
+        if (entry != null) {
+            kept.add(entry);
+        }
+    }
+
+    @Then("{int} messages are kept for the report")
+    public void messagesAreKeptForTheReport(int count) {
+        Assert.assertEquals(kept.size(), count);
+    }
+
+    @Then("the first {int} messages are kept, then one in {int}")
+    public void theFirstMessagesAreKeptThenOneIn(int first, int rate) {
+        // The long message was the first one admitted, so short message n was admitted n + 1st
+        for (int i = 1; i < kept.size(); i++) {
+            int admitted = i < first ? i + 1 : first + (i - first + 1) * rate;
+            Assert.assertEquals(kept.get(i).getText(), "Polling message " + (admitted - 1));
+        }
+    }
+
+    @Then("the report notes that {int} of {int} log messages were left out")
+    public void theReportNotesThatMessagesWereLeftOut(int omitted, int total) {
+        Assert.assertNotNull(omittedNote, "No note about left out messages");
+        Assert.assertTrue(omittedNote.startsWith(omitted + " of " + total + " log messages were left out"), omittedNote);
+    }
+
+    @Then("the long message is cut to {int} characters and its full text is attached")
+    public void theLongMessageIsCutAndAttached(int maxChars) throws Exception {
+        ReportVolume.Entry entry = kept.get(0);
+        Assert.assertNotNull(entry.getAttachment(), "Long message has no attachment");
+        Assert.assertTrue(entry.getText().startsWith("Response body: "), entry.getText());
+        Assert.assertTrue(entry.getText().endsWith("... (5000 chars)"), entry.getText());
+        Assert.assertEquals(entry.getText().length(), maxChars + "... (5000 chars)".length());
+        Assert.assertTrue(Files.exists(Paths.get(entry.getAttachment())), entry.getAttachment() + " does not exist");
+        Assert.assertEquals(Files.size(Paths.get(entry.getAttachment())), 5000);
+        for (ReportVolume.Entry shortEntry : kept.subList(1, kept.size())) {
+            Assert.assertNull(shortEntry.getAttachment(), shortEntry.getText());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package steps;
+
+import configuration.ScenarioDataStore;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import org.testng.SkipException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ScenarioDataSteps {
+
+    // Thread that ran the last scenario to end while holding scenario data
+    private static volatile Thread lastWriter;
+
+    @When("{int} workers each add {int} values to scenario data {string}")
+    public void workersEachAddValuesToScenarioData(int workers, int count, String key) throws Exception {
+        ScenarioDataStore store = ScenarioDataStore.share();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int worker = w;
+                results.add(executor.submit(() -> {
+                    ScenarioDataStore.bind(store);
+                    try {
+                        for (int i = 0; i < count; i++) {
+                            ScenarioDataStore.current().add(key, worker + "-" + i);
+                        }
+                    } finally {
+                        ScenarioDataStore.unbind();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @And("the scenario ends while its scenario data is still held")
+    public void theScenarioEndsWhileItsScenarioDataIsStillHeld() {
+        Assert.assertTrue(ScenarioDataStore.current().size() > 0, "The scenario holds no data to leave behind");
+        lastWriter = Thread.currentThread();
+    }
+
+    @Then("the previous scenario on this thread left no scenario data {string}")
+    public void thePreviousScenarioOnThisThreadLeftNoScenarioData(String key) {
+        // Thread-confined data can only leak into a scenario that runs next on the same thread
+        if (lastWriter != Thread.currentThread()) {
+            throw new SkipException("The scenario that held scenario data ran on " + lastWriter
+                    + ", not on this thread; run both scenarios in order on one thread to check the reset");
+        }
+        Assert.assertTrue(ScenarioDataStore.current().getAll(key).isEmpty(), "Scenario data " + key + " leaked from the previous scenario");
+        Assert.assertEquals(ScenarioDataStore.current().size(), 0);
+    }
+
+    @Then("scenario data {string} holds {int} values")
+    public void scenarioDataHoldsValues(String key, int count) {
+        Assert.assertEquals(ScenarioDataStore.current().getAll(key).size(), count);
+        Assert.assertEquals(ScenarioDataStore.current().size(), count);
+    }
+}
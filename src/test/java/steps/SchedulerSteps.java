@@ -0,0 +1,164 @@
+package steps;
+
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.testng.Assert;
+import reporting.Log;
+import runners.ResourceScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Feeds fake jobs to a {@link ResourceScheduler} and checks from their run times that slot limits,
+ * shared resources and @exclusive tags were respected
+ */
+public class SchedulerSteps {
+
+    private static final long JOB_MILLIS = 30;
+
+    private ResourceScheduler scheduler;
+    private final List<JobRun> runs = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger finished = new AtomicInteger();
+    private volatile long slotsChangedAt = Long.MAX_VALUE;
+
+    @Given("a scheduler with {int} browser slots, at most {int}, and {int} API slots")
+    public void aSchedulerWithSlots(int browserSlots, int maxBrowserSlots, int apiSlots) {
+        scheduler = new ResourceScheduler(browserSlots, maxBrowserSlots, apiSlots);
+    }
+
+    @And("{int} jobs tagged {string} are submitted")
+    public void jobsTaggedAreSubmitted(int count, String tags) {
+        List<String> tagList = Arrays.asList(tags.split(" "));
+        for (int i = 0; i < count; i++) {
+            String name = tags + " #" + i;
+            scheduler.submit(name, tagList, () -> {
+                long start = System.nanoTime();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(JOB_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                runs.add(new JobRun(name, tagList, start, System.nanoTime()));
+                finished.incrementAndGet();
+            });
+        }
+    }
+
+    @When("the scheduled jobs run")
+    public void theScheduledJobsRun() throws InterruptedException {
+        scheduler.start();
+        awaitJobs();
+    }
+
+    @When("the scheduled jobs run and the browser slots change to {int} after {int} jobs finished")
+    public void theScheduledJobsRunAndTheBrowserSlotsChange(int slots, int after) throws InterruptedException {
+        scheduler.start();
+        while (finished.get() < after) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        slotsChangedAt = System.nanoTime();
+        scheduler.setSlots(ResourceScheduler.ResourceClass.BROWSER, slots);
+        awaitJobs();
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        List<String> failures = scheduler.awaitCompletion();
+        Log.info(scheduler.summary());
+        Assert.assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    @Then("{int} jobs ran")
+    public void jobsRan(int count) {
+        Assert.assertEquals(runs.size(), count);
+    }
+
+    @Then("at most {int} jobs tagged {string} ran at once, and {int} did at some point")
+    public void atMostJobsTaggedRanAtOnce(int limit, String tag, int reached) {
+        int peak = peak(run -> run.tags.contains(tag), Long.MIN_VALUE, Long.MAX_VALUE);
+        Log.info("Peak of jobs tagged " + tag + " running at once: " + peak);
+        Assert.assertTrue(peak <= limit, peak + " jobs tagged " + tag + " ran at once, above the limit of " + limit);
+        Assert.assertEquals(peak, reached, "Jobs tagged " + tag + " did not fill their slots");
+    }
+
+    @Then("at most {int} jobs tagged {string} ran at once before the slot change and {int} after it")
+    public void atMostJobsRanAtOnceBeforeAndAfterTheSlotChange(int before, String tag, int after) {
+        Predicate<JobRun> tagged = run -> run.tags.contains(tag);
+        Assert.assertEquals(peak(tagged, Long.MIN_VALUE, slotsChangedAt), before, "Peak before the slot change");
+        Assert.assertEquals(peak(tagged, slotsChangedAt, Long.MAX_VALUE), after, "Peak after the slot change");
+    }
+
+    @Then("jobs tagged {string} never overlapped")
+    public void jobsTaggedNeverOverlapped(String tag) {
+        Assert.assertEquals(peak(run -> run.tags.contains(tag), Long.MIN_VALUE, Long.MAX_VALUE), 1,
+                "Jobs sharing " + tag + " ran at the same time");
+    }
+
+    @Then("every job tagged {string} ran alone after all other jobs")
+    public void everyJobTaggedRanAloneAfterAllOtherJobs(String tag) {
+        for (JobRun exclusive : runs) {
+            if (!exclusive.tags.contains(tag)) {
+                continue;
+            }
+            for (JobRun other : runs) {
+                if (other == exclusive) {
+                    continue;
+                }
+                boolean overlaps = other.start < exclusive.end && exclusive.start < other.end;
+                Assert.assertFalse(overlaps, exclusive.name + " overlapped " + other.name);
+                if (!other.tags.contains(tag)) {
+                    Assert.assertTrue(other.end <= exclusive.start, exclusive.name + " started before " + other.name + " ended");
+                }
+            }
+        }
+    }
+
+    /**
+     * Highest number of matching jobs running at once, counted at job starts within a time window
+     */
+    private int peak(Predicate<JobRun> filter, long from, long to) {
+        List<JobRun> matching = new ArrayList<>();
+        synchronized (runs) {
+            for (JobRun run : runs) {
+                if (filter.test(run)) {
+                    matching.add(run);
+                }
+            }
+        }
+        int peak = 0;
+        for (JobRun run : matching) {
+            if (run.start < from || run.start >= to) {
+                continue;
+            }
+            int running = 0;
+            for (JobRun other : matching) {
+                if (other.start <= run.start && run.start < other.end) {
+                    running++;
+                }
+            }
+            peak = Math.max(peak, running);
+        }
+        return peak;
+    }
+
+    private static class JobRun {
+        private final String name;
+        private final List<String> tags;
+        private final long start;
+        private final long end;
+
+        private JobRun(String name, List<String> tags, long start, long end) {
+            this.name = name;
+            this.tags = tags;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package steps;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.testng.Assert;
+import reporting.Log;
+import reporting.ScreenshotManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Captures frames from a fake browser through {@link ScreenshotManager} and checks how its background writer handles them
+ */
+public class ScreenshotSteps {
+
+    private byte[] basePng;
+    private final String run = UUID.randomUUID().toString();
+    private String capturedPath;
+    private final List<String> acceptedPaths = new ArrayList<>();
+    private int dropped;
+
+    @Given("a fake browser whose screenshots are {int} by {int} pixels")
+    public void aFakeBrowserWhoseScreenshotsAre(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", png);
+        basePng = png.toByteArray();
+    }
+
+    @When("the frame {string} is captured")
+    public void theFrameIsCaptured(String frame) {
+        capturedPath = ScreenshotManager.capture(browserShowing(frame));
+        Assert.assertNotNull(capturedPath, "Frame " + frame + " was not captured");
+    }
+
+    @Then("the capture returned before its file was written")
+    public void theCaptureReturnedBeforeItsFileWasWritten() {
+        Assert.assertFalse(Files.exists(Paths.get(capturedPath)), capturedPath + " was written on the step thread");
+    }
+
+    @When("the pending screenshots are written")
+    public void thePendingScreenshotsAreWritten() {
+        ScreenshotManager.awaitPendingWrites();
+    }
+
+    @Then("the captured file exists")
+    public void theCapturedFileExists() {
+        Assert.assertTrue(Files.exists(Paths.get(capturedPath)), capturedPath + " was not written");
+    }
+
+    @When("the captured file is deleted and the frame {string} is captured again")
+    public void theCapturedFileIsDeletedAndTheFrameIsCapturedAgain(String frame) throws IOException {
+        String firstPath = capturedPath;
+        Files.delete(Paths.get(firstPath));
+        theFrameIsCaptured(frame);
+        Assert.assertEquals(capturedPath, firstPath, "An identical frame must share its file");
+    }
+
+    @Then("the captured file was not written again")
+    public void theCapturedFileWasNotWrittenAgain() {
+        Assert.assertFalse(Files.exists(Paths.get(capturedPath)), "Identical frame was written again");
+    }
+
+    @When("{int} different frames are captured at once")
+    public void differentFramesAreCapturedAtOnce(int count) {
+        for (int i = 0; i < count; i++) {
+            String path = ScreenshotManager.capture(browserShowing("burst " + i));
+            if (path == null) {
+                dropped++;
+            } else {
+                acceptedPaths.add(path);
+            }
+        }
+        Log.info(acceptedPaths.size() + " frames queued, " + dropped + " dropped");
+    }
+
+    @Then("some of them are dropped while the writers are behind")
+    public void someOfThemAreDropped() {
+        Assert.assertTrue(dropped > 0, "No frame was dropped with the writer queue full");
+        Assert.assertFalse(acceptedPaths.isEmpty(), "Every frame was dropped");
+    }
+
+    @Then("every queued frame has its file")
+    public void everyQueuedFrameHasItsFile() {
+        for (String path : acceptedPaths) {
+            Assert.assertTrue(Files.exists(Paths.get(path)), path + " was not written");
+        }
+    }
+
+    // Bytes after the PNG's end chunk are ignored by decoders, so every frame costs the same to encode
+    private TakesScreenshot browserShowing(String frame) {
+        byte[] marker = (run + " " + frame).getBytes(StandardCharsets.UTF_8);
+        byte[] png = Arrays.copyOf(basePng, basePng.length + marker.length);
+        System.arraycopy(marker, 0, png, basePng.length, marker.length);
+        return new TakesScreenshot() {
+            @Override
+            public <X> X getScreenshotAs(OutputType<X> target) {
+                return target.convertFromPngBytes(png);
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package stubs;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local HTTP server used by API scenarios instead of a real environment
+ */
+public class StubServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long latencyMillis;
+
+    private StubServer(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a stub server on a free local port
+     */
+    public static StubServer start() throws IOException {
+        StubServer stub = new StubServer(32);
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * Returns a fixed body for a path; unknown paths echo the request body
+     */
+    public StubServer respondWith(String path, String body) {
+        responses.put(path, body);
+        return this;
+    }
+
+    public StubServer withStatus(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public StubServer withLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            respond(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String fixed = responses.get(exchange.getRequestURI().getPath());
+        byte[] body = fixed != null ? fixed.getBytes(StandardCharsets.UTF_8) : requestBody;
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Highest number of requests the stub was handling at the same time
+     */
+    public int getPeakConcurrentRequests() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Number of distinct client connections seen, identified by their source port
+     */
+    public int getConnectionCount() {
+        return clientPorts.size();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -4,7 +4,12 @@ import reporting.Log;
 import steps.DataManagement_steps;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static api.ApiUtils.convertJSONFileToMap;
 
 
 public class DataFactory {
@@ -17,7 +22,7 @@ public class DataFactory {
         DataManagement_steps data = new DataManagement_steps();
         String dataRefCustomer = customer+"CustomerPayload";
         Log.info("Data Reference Created  ==>"+dataRefCustomer);
-        String customerPayload = data.buildCustomerAPIPayload("dataTemplate",dataRefCustomer,"dataPayload",null);
+        String customerPayload = data.buildCustomerAPIPayload("dataTemplate",dataRefCustomer,"datapayload",null);
         Log.info("Customer Payload ==>"+customerPayload);
     }
 
@@ -30,7 +35,34 @@ public class DataFactory {
         Map<String,String> updateValues = new HashMap<>();
         updateValues.put("Vintage","NA Map updated");
         updateValues.put("cust_score","NA Map Updated");
-        String customerPayload = data.buildCustomerAPIPayloadWithUpdate("dataTemplate",dataRefCustomer,"dataPayload",updateValues);
+        String customerPayload = data.buildCustomerAPIPayloadWithUpdate("dataTemplate",dataRefCustomer,"datapayload",updateValues);
         Log.info("Customer Payload ==>"+customerPayload);
     }
+
+
+    // Every top-level entry of the test data file is one customer. Payloads are built only when the
+    // iterator is advanced, so a pipeline pulling them can throttle generation to its send rate
+    public Iterator<String> customerPayloads(String testDataJson){
+        DataManagement_steps data = new DataManagement_steps();
+        String file = "src/test/resources/payloads/"+testDataJson+".json";
+        Map<String,Object> records = convertJSONFileToMap(file);
+        if (records == null) {
+            throw new IllegalStateException("Customer records could not be read from "+file);
+        }
+        Set<String> dataRefs = records.keySet();
+        Log.info("Building payloads lazily for "+dataRefs.size()+" customers in "+testDataJson);
+        return dataRefs.stream()
+                .map(dataRef -> data.buildCustomerAPIPayload("dataTemplate",dataRef,testDataJson,null))
+                .iterator();
+    }
+
+
+    // The same customer's payload any number of times, built only when the iterator is advanced
+    public Iterator<String> customerPayloadCopies(String customer, int copies){
+        DataManagement_steps data = new DataManagement_steps();
+        Log.info("Building "+copies+" payloads lazily for the customer "+customer);
+        return Stream.generate(() -> data.buildCustomerAPIPayload("dataTemplate",customer+"CustomerPayload","datapayload",null))
+                .limit(copies)
+                .iterator();
+    }
 }
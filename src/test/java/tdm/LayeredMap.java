@@ -0,0 +1,142 @@
+package tdm;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only view over stacked maps, such as env attributes, then a customer's data, then per-test overrides.
+ * Lookups go from the top layer down and return the first value found, so the layers are never copied
+ * and many payloads can share the same base layers. Changes to a layer are visible through the view.
+ */
+public class LayeredMap<K, V> extends AbstractMap<K, V> {
+
+    // Top layer first, in lookup order
+    private final Map<? extends K, ? extends V>[] layers;
+
+    @SuppressWarnings("unchecked")
+    private LayeredMap(List<Map<? extends K, ? extends V>> topFirst) {
+        this.layers = topFirst.toArray(new Map[0]);
+    }
+
+    /**
+     * Creates a view over layers given from the base layer to the top layer; null layers are skipped
+     */
+    @SafeVarargs
+    public static <K, V> LayeredMap<K, V> of(Map<? extends K, ? extends V>... baseFirst) {
+        List<Map<? extends K, ? extends V>> topFirst = new ArrayList<>(baseFirst.length);
+        for (int i = baseFirst.length - 1; i >= 0; i--) {
+            if (baseFirst[i] != null) {
+                topFirst.add(baseFirst[i]);
+            }
+        }
+        return new LayeredMap<>(topFirst);
+    }
+
+    /**
+     * Creates a view with another layer on top of this one's layers, which are shared, not copied
+     *
+     * @param overrides values taking precedence over every existing layer, or null for none
+     */
+    public LayeredMap<K, V> with(Map<? extends K, ? extends V> overrides) {
+        if (overrides == null || overrides.isEmpty()) {
+            return this;
+        }
+        List<Map<? extends K, ? extends V>> topFirst = new ArrayList<>(layers.length + 1);
+        topFirst.add(overrides);
+        topFirst.addAll(Arrays.asList(layers));
+        return new LayeredMap<>(topFirst);
+    }
+
+    @Override
+    public V get(Object key) {
+        for (Map<? extends K, ? extends V> layer : layers) {
+            V value = layer.get(key);
+            if (value != null || layer.containsKey(key)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (Map<? extends K, ? extends V> layer : layers) {
+            if (layer.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (Iterator<Entry<K, V>> it = iterator(); it.hasNext(); it.next()) {
+                    size++;
+                }
+                return size;
+            }
+        };
+    }
+
+    private boolean isShadowed(Object key, int layerIndex) {
+        for (int i = 0; i < layerIndex; i++) {
+            if (layers[i].containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walks the layers top-down, skipping keys that a higher layer already provided
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private int layerIndex = -1;
+        private Iterator<? extends Entry<? extends K, ? extends V>> current;
+        private Entry<K, V> next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current == null || !current.hasNext()) {
+                    if (++layerIndex >= layers.length) {
+                        return false;
+                    }
+                    current = layers[layerIndex].entrySet().iterator();
+                    continue;
+                }
+                Entry<? extends K, ? extends V> entry = current.next();
+                if (!isShadowed(entry.getKey(), layerIndex)) {
+                    next = new SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = next;
+            next = null;
+            return entry;
+        }
+    }
+}
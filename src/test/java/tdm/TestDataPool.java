@@ -0,0 +1,195 @@
+package tdm;
+
+import reporting.Log;
+import utilities.ConfigReader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static api.ApiUtils.convertJSONFileToMap;
+
+/**
+ * Pool of test data records (accounts, customers) shared by parallel scenarios.
+ * Each top-level entry of a payload file is one record and is leased to one scenario at a time.
+ * Free records sit in a lock-free queue; leases taken by a thread are released by the
+ * After hook when its scenario ends. The hook only sees the scenario's own thread, so a lease
+ * taken on a worker thread started by a step must be released with {@link Lease#release()}.
+ */
+public class TestDataPool {
+
+    private static final ConfigReader configReader = new ConfigReader("config.properties");
+    private static final ConcurrentMap<String, TestDataPool> pools = new ConcurrentHashMap<>();
+    private static final ThreadLocal<List<Lease>> scenarioLeases = ThreadLocal.withInitial(ArrayList::new);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Record> available = new ConcurrentLinkedQueue<>();
+    private final int size;
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    private TestDataPool(String name, Map<String, Map<String, String>> records) {
+        this.name = name;
+        records.forEach((key, data) -> available.offer(new Record(key, data)));
+        this.size = records.size();
+    }
+
+    /**
+     * Gets the pool for a payload file under src/test/resources/payloads, loading it on first use
+     *
+     * @param testDataJson file name without the .json extension
+     */
+    public static TestDataPool forFile(String testDataJson) {
+        return pools.computeIfAbsent(testDataJson, file -> {
+            Map<String, Map<String, String>> records = convertJSONFileToMap("src/test/resources/payloads/" + file + ".json");
+            if (records == null || records.isEmpty()) {
+                throw new IllegalStateException("No test data records found in " + file + ".json");
+            }
+            Log.info("Loaded " + records.size() + " records into test data pool " + file);
+            return new TestDataPool(file, new LinkedHashMap<>(records));
+        });
+    }
+
+    /**
+     * Number of records in the pool, leased or free
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Leases any free record, waiting up to the configured dataLeaseTimeout seconds
+     */
+    public Lease lease() {
+        return lease(Duration.ofSeconds(getLeaseTimeoutSeconds()));
+    }
+
+    /**
+     * Leases any free record exclusively for the current scenario
+     *
+     * @param timeout how long to wait for another scenario to release a record
+     * @return leased record, released automatically when the scenario ends if it was leased on the scenario's thread
+     */
+    public Lease lease(Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long backoff = TimeUnit.MICROSECONDS.toNanos(100);
+        Record record;
+        while ((record = available.poll()) == null) {
+            if (System.nanoTime() - deadline >= 0) {
+                timeouts.increment();
+                throw new IllegalStateException("No free record in test data pool " + name + " after "
+                        + timeout.toMillis() + " ms; all " + size + " records are leased");
+            }
+            LockSupport.parkNanos(backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        leases.increment();
+        // A new lease per hand-out, so releasing an earlier lease of the record cannot free it again
+        Lease lease = new Lease(this, record);
+        scenarioLeases.get().add(lease);
+        return lease;
+    }
+
+    /**
+     * Releases every record leased by the current thread; called when a scenario ends
+     */
+    public static void releaseScenarioLeases() {
+        List<Lease> held = scenarioLeases.get();
+        for (Lease lease : held) {
+            lease.pool.giveBack(lease);
+        }
+        held.clear();
+    }
+
+    private void giveBack(Lease lease) {
+        if (lease.released.compareAndSet(false, true)) {
+            available.offer(lease.record);
+        }
+    }
+
+    private static long getLeaseTimeoutSeconds() {
+        String value = System.getProperty("dataLeaseTimeout", configReader.getProperty("dataLeaseTimeout"));
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 30;
+        }
+    }
+
+    /**
+     * Lease and wait statistics of every pool used in this run
+     */
+    public static String metricsSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (TestDataPool pool : pools.values()) {
+            long count = pool.leases.sum();
+            summary.append(String.format("Test data pool %s: records=%d, free=%d, leases=%d, timeouts=%d, avgWait=%.2f ms, maxWait=%.2f ms%n",
+                    pool.name, pool.size, pool.available.size(), count, pool.timeouts.sum(),
+                    count == 0 ? 0 : pool.totalWaitNanos.sum() / (double) count / 1_000_000,
+                    pool.maxWaitNanos.get() / 1_000_000.0));
+        }
+        return summary.toString();
+    }
+
+    private static class Record {
+        private final String key;
+        private final Map<String, String> data;
+
+        private Record(String key, Map<String, String> data) {
+            this.key = key;
+            this.data = Collections.unmodifiableMap(data);
+        }
+    }
+
+    /**
+     * One record held exclusively by a scenario; each lease of a record is a separate object
+     */
+    public static class Lease {
+        private final TestDataPool pool;
+        private final Record record;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(TestDataPool pool, Record record) {
+            this.pool = pool;
+            this.record = record;
+        }
+
+        public String getKey() {
+            return record.key;
+        }
+
+        public Map<String, String> getData() {
+            return record.data;
+        }
+
+        public String get(String attribute) {
+            return record.data.get(attribute);
+        }
+
+        /**
+         * Returns the record to the pool before the scenario ends; releasing a lease again has no effect
+         */
+        public void release() {
+            scenarioLeases.get().remove(this);
+            pool.giveBack(this);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+@api
+Feature: validate API payloads are sent through the pooled API client
+  Scenario: Validate customer payloads are posted over pooled connections
+    Given a local stub API is running
+    When the payload for the customer "Akash" is posted 200 times to "/customers"
+    Then every API response has status 200
+    And the stub API received 200 requests over at most 64 connections
@@ -0,0 +1,7 @@
+@api @exclusive
+Feature: validate API scenarios can be replayed as load
+  Scenario: Validate customer payload is replayed at a constant arrival rate
+    Given a local stub API is running with 20 ms latency
+    When the payload for the customer "Akash" is replayed to "/customers" at 200 requests per second for 3 seconds
+    Then the load report shows 600 requests without errors
+    And the load report p99 response time is below 1000 ms
@@ -1,3 +1,14 @@
+@api
 Feature: validate API payload is built based on environment and payload file
   Scenario: Validate basic api payload without modifying
-    Given Validate that API payload is generated for the customer "Akash"
\ No newline at end of file
+    Given Validate that API payload is generated for the customer "Akash"
+
+  Scenario: Validate updates override both the customer data and the env data
+    When the payload for the customer "Akash" is built with the updates
+      | Vintage         | NA Map updated  |
+      | checkingAccount | UPDATED_ACCOUNT |
+    Then the built payload has the fields
+      | Vintage         | NA Map updated  |
+      | checkingAccount | UPDATED_ACCOUNT |
+      | Bankingholder   | Akash           |
+    And the payload data of the customer "Akash" equals a copy of the env data, the customer data and the updates
@@ -0,0 +1,13 @@
+@api
+Feature: validate compiled payload templates render the same JSON as Velocity
+  Scenario: Validate the payload template renders every customer like Velocity
+    Then the payload template "dataTemplate" renders like Velocity for every customer in "datapayload"
+
+  Scenario: Validate the payload template escapes values placed inside JSON strings
+    Then the payload template "dataTemplate" renders like Velocity with values containing quotes, backslashes and control characters
+    And the payload template "dataTemplate" renders like Velocity when no values are given
+
+  Scenario: Validate values are escaped the same way when a template falls back to Velocity
+    Then the payload template "dataTemplate" keeps values containing quotes, backslashes and control characters as they are
+    And the payload template "dataTemplateBranded" is rendered by Velocity
+    And the payload template "dataTemplateBranded" keeps values containing quotes, backslashes and control characters as they are
@@ -0,0 +1,25 @@
+@api
+Feature: validate customers are created through the async API pipeline
+  Scenario: Validate one request is sent per customer
+    Given a local stub API is running with 50 ms latency
+    When every customer in "datapayload" is posted to "/customers" with at most 8 requests in flight in batches of 1
+    Then the pipeline sent 3 payloads in 3 requests without failures
+    And every API response has status 200
+
+  Scenario: Validate customers are batched into bulk requests
+    Given a local stub API is running
+    When every customer in "datapayload" is posted to "/customers/bulk" with at most 2 requests in flight in batches of 2
+    Then the pipeline sent 3 payloads in 2 requests without failures
+    And the stub API received 2 requests over at most 2 connections
+
+  Scenario: Validate a slow service holds the pipeline to its in-flight limit
+    Given a local stub API is running with 50 ms latency
+    When 40 payloads for the customer "Akash" are posted to "/customers" with at most 4 requests in flight in batches of 1
+    Then the pipeline sent 40 payloads in 40 requests without failures
+    And the stub API handled at most 4 requests at once
+
+  Scenario: Validate batched requests stay within the in-flight limit
+    Given a local stub API is running with 50 ms latency
+    When 60 payloads for the customer "Sahana" are posted to "/customers/bulk" with at most 3 requests in flight in batches of 5
+    Then the pipeline sent 60 payloads in 12 requests without failures
+    And the stub API handled at most 3 requests at once
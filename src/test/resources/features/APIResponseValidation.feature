@@ -0,0 +1,27 @@
+@api
+Feature: validate large API responses with the streaming assertion engine
+  Scenario: Validate a large customer list against the schema and expected values
+    Given a local stub API is running
+    And the stub API returns 20000 copies of the customer "Akash" for "/customers"
+    When the customer list is fetched from "/customers"
+    Then the response matches the schema "customerList" with 20000 elements
+    And every element of the response has "$.Bankingholder" equal to "Akash"
+
+  Scenario: Validate every mismatch in the response is reported at once
+    Given a local stub API is running
+    And the stub API returns 50 copies of the customer "Sahana" for "/customers"
+    When the customer list is fetched from "/customers"
+    Then validating "$.Banking_mode_operation" equal to "ALL" against the schema "customerList" reports 50 mismatches
+
+  Scenario: Validate a large customer list inside a page envelope one element at a time
+    Given a local stub API is running
+    And the stub API returns 20000 copies of the customer "Akash" in the "data" field of a page for "/customers/page"
+    When the customer list is fetched from "/customers/page"
+    Then the list at "/data" in the response matches the schema "customerPage" with 20000 elements
+    And every element of the list at "/data" in the response has "$.Bankingholder" equal to "Akash"
+
+  Scenario: Validate every mismatch in a list inside a page envelope is reported at once
+    Given a local stub API is running
+    And the stub API returns 50 copies of the customer "Sahana" in the "data" field of a page for "/customers/page"
+    When the customer list is fetched from "/customers/page"
+    Then validating "$.Banking_mode_operation" equal to "ALL" for the list at "/data" against the schema "customerPage" reports 50 mismatches
@@ -1,3 +1,4 @@
+@api
 Feature: validate Logger
   Scenario: Validate Test
     Given Validate all the config files are read from properties
\ No newline at end of file
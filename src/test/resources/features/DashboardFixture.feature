@@ -0,0 +1,11 @@
+@browser
+Feature: Locator service on the dashboard fixture
+  Scenario: Read and act on elements in shadow roots and frames
+    Given user opens the dashboard fixture
+    Then the dashboard shows title "Sales dashboard", revenue "1200" and order status "Stale"
+    And the dashboard title element reads "Sales dashboard"
+    And the revenue card snapshot holds label "Revenue" and value "1200"
+    And the orders table snapshot holds 4 rows
+    And finding the order status element from the top-level document is rejected
+    When user refreshes the orders inside their frame
+    Then the dashboard shows title "Sales dashboard", revenue "1200" and order status "Refreshed"
@@ -0,0 +1,9 @@
+@api
+Feature: validate the event log can be read back by its renderer
+  Scenario: Validate the event log is readable before and after the run finishes
+    Given an event log is written for 3 passed and 2 failed scenarios without finishing the run
+    Then the event log renders 5 scenarios with 2 failed
+    And the rendered event log is reported as "ending early"
+    When the event log run finishes
+    Then the event log renders 5 scenarios with 2 failed
+    And the rendered event log is reported as "complete"
@@ -0,0 +1,18 @@
+@api
+Feature: validate the feature index selects feature files by tag and reparses only changed files
+  Scenario: Validate the feature index caches unchanged files and selects matching features
+    Given a feature tree with the files and scenario tags
+      | api.feature     | @api                        |
+      | browser.feature | @browser \| @browser @smoke |
+      | mixed.feature   | @api \| @browser            |
+    And a feature file "broken.feature" that does not parse
+    When the feature tree is indexed
+    Then 4 feature files with 5 scenarios were indexed and 4 of them parsed
+    When the feature tree is indexed
+    Then 4 feature files with 5 scenarios were indexed and 0 of them parsed
+    When the scenario tags of "api.feature" change to "@api @smoke" and the feature tree is indexed
+    Then 4 feature files with 5 scenarios were indexed and 1 of them parsed
+    And the features matching "@api" are "api.feature, broken.feature, mixed.feature"
+    And the features matching "@smoke and not @browser" are "api.feature, broken.feature"
+    And the features matching "@browser and not @api" are "broken.feature, browser.feature, mixed.feature"
+    And the features matching "" are "api.feature, broken.feature, browser.feature, mixed.feature"
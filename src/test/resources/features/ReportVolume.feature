@@ -0,0 +1,10 @@
+@api
+Feature: validate the reports get a bounded sample of a scenario's log messages
+  # Uses the defaults: the first 200 messages, then 1 in 10, at most 500, and 2000 characters per message
+  Scenario: Validate a long scenario log is sampled and a long message is cut and attached
+    Given a scenario has logged nothing to the report yet
+    When a message of 5000 characters and then 1000 short messages are logged
+    Then 280 messages are kept for the report
+    And the first 200 messages are kept, then one in 10
+    And the report notes that 721 of 1001 log messages were left out
+    And the long message is cut to 2000 characters and its full text is attached
@@ -0,0 +1,36 @@
+@api
+Feature: validate the resource scheduler keeps scenarios within their slots and resources
+  Scenario: Validate browser and API jobs stay within their slot limits
+    Given a scheduler with 2 browser slots, at most 2, and 3 API slots
+    And 12 jobs tagged "@browser" are submitted
+    And 12 jobs tagged "@api" are submitted
+    When the scheduled jobs run
+    Then 24 jobs ran
+    And at most 2 jobs tagged "@browser" ran at once, and 2 did at some point
+    And at most 3 jobs tagged "@api" ran at once, and 3 did at some point
+
+  Scenario: Validate jobs holding the same resource never overlap
+    Given a scheduler with 2 browser slots, at most 2, and 4 API slots
+    And 6 jobs tagged "@api @exclusive:customerDb" are submitted
+    And 6 jobs tagged "@api" are submitted
+    And 4 jobs tagged "@browser @exclusive:customerDb" are submitted
+    When the scheduled jobs run
+    Then 16 jobs ran
+    And jobs tagged "@exclusive:customerDb" never overlapped
+    And at most 4 jobs tagged "@api" ran at once, and 4 did at some point
+
+  Scenario: Validate exclusive jobs run alone after all other jobs
+    Given a scheduler with 2 browser slots, at most 2, and 4 API slots
+    And 2 jobs tagged "@api @exclusive" are submitted
+    And 4 jobs tagged "@api" are submitted
+    And 4 jobs tagged "@browser" are submitted
+    When the scheduled jobs run
+    Then 10 jobs ran
+    And every job tagged "@exclusive" ran alone after all other jobs
+
+  Scenario: Validate raising the browser slots during a run lets more browser jobs start
+    Given a scheduler with 1 browser slots, at most 3, and 1 API slots
+    And 12 jobs tagged "@browser" are submitted
+    When the scheduled jobs run and the browser slots change to 3 after 3 jobs finished
+    Then 12 jobs ran
+    And at most 1 jobs tagged "@browser" ran at once before the slot change and 3 after it
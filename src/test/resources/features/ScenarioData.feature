@@ -0,0 +1,17 @@
+@api
+Feature: validate scenario data does not leak between scenarios
+  Scenario: Validate workers of a step share the scenario data store
+    When 8 workers each add 100 values to scenario data "orderIds"
+    Then scenario data "orderIds" holds 800 values
+
+  # The next two scenarios must run in order on one thread. @exclusive keeps them on the TestNG thread in
+  # VirtualThreadRunner; where they land on different threads the second one is skipped
+  @exclusive
+  Scenario: Validate a scenario can end while holding scenario data
+    When 4 workers each add 10 values to scenario data "orderIds"
+    Then scenario data "orderIds" holds 40 values
+    And the scenario ends while its scenario data is still held
+
+  @exclusive
+  Scenario: Validate scenario data is reset before the next scenario on the thread
+    Then the previous scenario on this thread left no scenario data "orderIds"
@@ -0,0 +1,18 @@
+@api
+Feature: validate screenshots are written in the background
+  Scenario: Validate screenshots are written off the step thread, shared when identical and dropped when the writers fall behind
+    Given a fake browser whose screenshots are 800 by 600 pixels
+    When the frame "login page" is captured
+    Then the capture returned before its file was written
+    When the pending screenshots are written
+    Then the captured file exists
+    When the captured file is deleted and the frame "login page" is captured again
+    And the pending screenshots are written
+    Then the captured file was not written again
+    When 400 different frames are captured at once
+    Then some of them are dropped while the writers are behind
+    When the pending screenshots are written
+    Then every queued frame has its file
+    When the frame "dashboard" is captured
+    And the pending screenshots are written
+    Then the captured file exists
@@ -0,0 +1,12 @@
+@api
+Feature: validate test data records are leased exclusively to parallel workers
+  Scenario: Validate customers are never shared between workers
+    When 16 workers lease records from "datapayload" 50 times each
+    Then 800 leases completed without any record leased twice at once
+
+  # Holds the account resource, so no login scenario leases the account meanwhile
+  @exclusive:stockmockAccount
+  Scenario: Validate releasing an earlier lease again does not free a record leased since
+    When every record of "accounts" is leased, released and leased again
+    And the earlier lease is released again
+    Then no record of "accounts" can be leased while the current lease is held
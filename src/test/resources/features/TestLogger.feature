@@ -1,3 +1,4 @@
+@api
 Feature: validate Logger
   Scenario: Validate Slf4j
     Given User is able to print both console and file logs using slf implementation
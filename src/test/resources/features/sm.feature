@@ -1,3 +1,4 @@
+@browser @exclusive:stockmockAccount
 Feature: Stockmock Validation
   Scenario: Successful login with valid credentials
     Given user navigates to the login page